@@ -0,0 +1,40 @@
+package com.example.project.bench;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Runs the suite twice and writes JSON results next to the working directory:
+//   bench-avgt.json  ns/op, with the GC profiler (gc.alloc.rate.norm is bytes allocated per op)
+//   bench-thrpt.json ops/s
+// Usage: BenchmarkMain [benchmark regex], e.g. "ParseBenchmark.rhrread"
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 ? args[0] : "com.example.project.bench.*";
+        System.out.println("Payloads " + Payloads.describe());
+
+        new Runner(new OptionsBuilder()
+                .include(include)
+                .mode(Mode.AverageTime)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("bench-avgt.json")
+                .build()).run();
+
+        new Runner(new OptionsBuilder()
+                .include(include)
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .resultFormat(ResultFormatType.JSON)
+                .result("bench-thrpt.json")
+                .build()).run();
+    }
+}
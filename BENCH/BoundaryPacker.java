@@ -0,0 +1,490 @@
+package com.example.project.bench;
+
+import com.example.project.core.District;
+import com.example.project.core.DistrictBoundaries;
+import com.example.project.core.DistrictMapper;
+import com.example.project.core.FileAssetSource;
+import com.example.project.core.HKOJsonReader;
+
+import org.json.JSONException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// Builds hko_district_boundaries.bin, the HKDB file DistrictBoundaries reads, from district boundary polygons
+// in GeoJSON with WGS84 lon/lat coordinates, e.g. the District Council district boundaries the government
+// publishes, exported as GeoJSON. Each feature needs a string property naming one of the 18 districts
+// ("Central and Western", "Kwai Tsing", ...), the first property that does is used unless one is given.
+// Rings are simplified with Douglas-Peucker, holes are dropped. The file is read back and checked on a few
+// landmarks, Tsing Yi must come out as Kwai Tsing and not Tsuen Wan like the nearest centroid says.
+// Keep the asset uncompressed in the APK (noCompress "bin") so DistrictBoundaries can map it.
+// With --partial districts may have no polygon, points outside every polygon then go to the nearest centroid
+// like DistrictMapper.findDistrict does, and the landmarks are checked through that same fallback.
+//   BoundaryPacker <boundaries.geojson> [output dir, default ASSETS] [--name-property NAME] [--tolerance-m 15] [--partial]
+public class BoundaryPacker {
+
+    private static final int MAGIC = 0x484B4442; // "HKDB"
+    private static final int VERSION = 1;
+
+    private static final double DEFAULT_TOLERANCE_M = 15;
+
+    // Metres per degree around Hong Kong (22.3 N), good enough for simplifying
+    private static final double METRES_PER_DEGREE_LAT = 110_750;
+    private static final double METRES_PER_DEGREE_LON = 103_000;
+
+    // One ring of one district, vertices without the closing repeat of the first one
+    public static class Polygon {
+        public final District district;
+        public final float[] lat;
+        public final float[] lon;
+
+        public Polygon(District district, float[] lat, float[] lon) {
+            this.district = district;
+            this.lat = lat;
+            this.lon = lon;
+        }
+
+        float minLat() {
+            float min = Float.MAX_VALUE;
+            for (float value : lat) {
+                min = Math.min(min, value);
+            }
+            return min;
+        }
+    }
+
+    // Points every boundary file must get right, MTR stations well inside their district and Lamma,
+    // which the nearest centroid puts in Southern
+    private static final Object[][] LANDMARKS = {
+            {"Tsing Yi", 22.3584, 114.1077, District.KWAI_TSING},
+            {"Kwai Fong", 22.3569, 114.1279, District.KWAI_TSING},
+            {"Tsuen Wan", 22.3736, 114.1177, District.TSUEN_WAN},
+            {"Central", 22.2819, 114.1581, District.CENTRAL_AND_WESTERN},
+            {"Mong Kok", 22.3193, 114.1694, District.YAU_TSIM_MONG},
+            {"Sha Tin", 22.3827, 114.1870, District.SHA_TIN},
+            {"Tuen Mun", 22.3948, 113.9733, District.TUEN_MUN},
+            {"Tung Chung", 22.2892, 113.9415, District.ISLANDS},
+            {"Lamma Island", 22.2150, 114.1200, District.ISLANDS},
+    };
+
+    public static void main(String[] args) throws Exception {
+        String input = null;
+        File outputDir = new File("ASSETS");
+        String nameProperty = null;
+        double toleranceMetres = DEFAULT_TOLERANCE_M;
+        boolean outputGiven = false;
+        boolean partial = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--name-property": nameProperty = args[++i]; break;
+                case "--tolerance-m": toleranceMetres = Double.parseDouble(args[++i]); break;
+                case "--partial": partial = true; break;
+                default:
+                    if (input == null) {
+                        input = args[i];
+                    } else if (!outputGiven) {
+                        outputDir = new File(args[i]);
+                        outputGiven = true;
+                    }
+                    break;
+            }
+        }
+        if (input == null) {
+            System.err.println("Usage: BoundaryPacker <boundaries.geojson> [output dir] [--name-property NAME] [--tolerance-m 15] [--partial]");
+            System.exit(2);
+        }
+
+        List<Polygon> polygons;
+        try (Reader reader = new InputStreamReader(new FileInputStream(input), StandardCharsets.UTF_8)) {
+            polygons = readGeoJson(reader, nameProperty);
+        }
+        polygons = simplify(polygons, toleranceMetres);
+
+        boolean ok = true;
+        int[] perDistrict = new int[District.COUNT];
+        int vertices = 0;
+        for (Polygon polygon : polygons) {
+            perDistrict[polygon.district.ordinal()]++;
+            vertices += polygon.lat.length;
+        }
+        for (int i = 0; i < District.COUNT; i++) {
+            if (perDistrict[i] == 0) {
+                System.err.println("No polygon for " + District.get(i).getDisplayName());
+                ok &= partial;
+            }
+        }
+
+        byte[] packed = pack(polygons);
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("Cannot create " + outputDir.getAbsolutePath());
+        }
+        File output = new File(outputDir, DistrictBoundaries.ASSET_NAME);
+        Files.write(output.toPath(), packed);
+        System.out.println(output + ": " + polygons.size() + " polygons, " + vertices + " vertices, "
+                + packed.length + " bytes");
+
+        DistrictBoundaries boundaries = DistrictBoundaries.load(new FileAssetSource(outputDir));
+        if (boundaries == null) {
+            throw new IOException("Cannot read back " + output);
+        }
+        for (Object[] landmark : LANDMARKS) {
+            double latitude = (Double) landmark[1];
+            double longitude = (Double) landmark[2];
+            District found = boundaries.find(latitude, longitude);
+            String how = "polygon";
+            if (found == null && partial) {
+                found = nearestCentroid(latitude, longitude);
+                how = "centroid";
+            }
+            boolean right = found == landmark[3];
+            System.out.println((right ? "ok     " : "WRONG  ") + landmark[0] + ": "
+                    + (found != null ? found.getDisplayName() + " (" + how + ")" : "no polygon"));
+            ok &= right;
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    // The district DistrictMapper.findDistrict falls back to outside every polygon
+    private static District nearestCentroid(double latitude, double longitude) {
+        DistrictMapper.DistrictLocation nearest = DistrictMapper.findNearestDistrict(latitude, longitude);
+        for (int i = 0; i < District.COUNT; i++) {
+            if (DistrictMapper.getLocation(District.get(i)) == nearest) {
+                return District.get(i);
+            }
+        }
+        return null;
+    }
+
+    // ==================== GeoJSON ====================
+
+    private static final String[] COLLECTION_FIELDS = {"features"};
+    private static final String[] FEATURE_FIELDS = {"properties", "geometry"};
+    private static final String[] GEOMETRY_FIELDS = {"type", "coordinates"};
+
+    // The outer ring of every polygon of every feature. Features without a district name are skipped
+    static List<Polygon> readGeoJson(Reader source, String nameProperty) throws IOException, JSONException {
+        List<Polygon> polygons = new ArrayList<>();
+        HKOJsonReader reader = new HKOJsonReader(source);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.selectName(COLLECTION_FIELDS) != 0) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                readFeature(reader, nameProperty, polygons);
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        return polygons;
+    }
+
+    private static void readFeature(HKOJsonReader reader, String nameProperty, List<Polygon> polygons)
+            throws IOException, JSONException {
+        District district = null;
+        List<List<double[]>> rings = null;
+        String name = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(FEATURE_FIELDS)) {
+                case 0:
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String property = reader.nextName();
+                        if (reader.peek() != HKOJsonReader.STRING || (nameProperty != null && !property.equals(nameProperty))) {
+                            reader.skipValue();
+                            continue;
+                        }
+                        String value = reader.nextString("");
+                        District match = districtForName(value);
+                        if (district == null && match != null) {
+                            district = match;
+                        }
+                        if (name == null) {
+                            name = value;
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case 1:
+                    rings = readOuterRings(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        if (district == null) {
+            System.err.println("Skipping a feature without a district name" + (name != null ? ": " + name : ""));
+            return;
+        }
+        if (rings == null) {
+            return;
+        }
+        for (List<double[]> ring : rings) {
+            polygons.add(toPolygon(district, ring));
+        }
+    }
+
+    // Polygon or MultiPolygon, only the first ring of each polygon is kept
+    private static List<List<double[]>> readOuterRings(HKOJsonReader reader) throws IOException, JSONException {
+        String type = null;
+        Object coordinates = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(GEOMETRY_FIELDS)) {
+                case 0: type = reader.nextString(""); break;
+                case 1: coordinates = readTree(reader); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+
+        List<List<double[]>> rings = new ArrayList<>();
+        if ("Polygon".equals(type)) {
+            rings.add(firstRing(coordinates));
+        } else if ("MultiPolygon".equals(type)) {
+            for (Object polygon : asList(coordinates)) {
+                rings.add(firstRing(polygon));
+            }
+        } else {
+            throw new IOException("Unsupported geometry type " + type + ", expected Polygon or MultiPolygon");
+        }
+        return rings;
+    }
+
+    private static List<double[]> firstRing(Object polygon) throws IOException {
+        List<Object> rings = asList(polygon);
+        if (rings.isEmpty()) {
+            throw new IOException("Polygon without rings");
+        }
+        List<double[]> ring = new ArrayList<>();
+        for (Object position : asList(rings.get(0))) {
+            if (!(position instanceof double[])) {
+                throw new IOException("Malformed ring");
+            }
+            ring.add((double[]) position);
+        }
+        return ring;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> asList(Object node) throws IOException {
+        if (!(node instanceof List)) {
+            throw new IOException("Malformed coordinates");
+        }
+        return (List<Object>) node;
+    }
+
+    // Nested coordinate arrays, a position ([lon, lat, ...]) becomes a double[] of lon and lat
+    private static Object readTree(HKOJsonReader reader) throws IOException, JSONException {
+        reader.beginArray();
+        if (reader.peek() == HKOJsonReader.NUMBER) {
+            double lon = reader.nextDouble(Double.NaN);
+            double lat = reader.nextDouble(Double.NaN);
+            while (reader.hasNext()) {
+                reader.skipValue();
+            }
+            reader.endArray();
+            return new double[]{lon, lat};
+        }
+
+        List<Object> items = new ArrayList<>();
+        while (reader.hasNext()) {
+            items.add(readTree(reader));
+        }
+        reader.endArray();
+        return items;
+    }
+
+    private static Polygon toPolygon(District district, List<double[]> ring) throws IOException {
+        int count = ring.size();
+        // GeoJSON closes every ring by repeating the first position
+        if (count > 1 && ring.get(0)[0] == ring.get(count - 1)[0] && ring.get(0)[1] == ring.get(count - 1)[1]) {
+            count--;
+        }
+
+        float[] lat = new float[count];
+        float[] lon = new float[count];
+        for (int i = 0; i < count; i++) {
+            double[] position = ring.get(i);
+            if (!(Math.abs(position[0]) <= 180 && Math.abs(position[1]) <= 90)) {
+                throw new IOException("Coordinates are not WGS84 lon/lat (" + position[0] + ", " + position[1]
+                        + "), reproject the file first");
+            }
+            lon[i] = (float) position[0];
+            lat[i] = (float) position[1];
+        }
+        return new Polygon(district, lat, lon);
+    }
+
+    // "Central and Western", "Central & Western District" and "CENTRAL AND WESTERN" all match
+    static District districtForName(String name) {
+        String wanted = normalise(name);
+        for (int i = 0; i < District.COUNT; i++) {
+            District district = District.get(i);
+            if (normalise(district.getDisplayName()).equals(wanted)) {
+                return district;
+            }
+        }
+        return null;
+    }
+
+    private static String normalise(String name) {
+        String lower = name.toLowerCase(Locale.ROOT).replace("&", " and ").replace("district", " ");
+        StringBuilder letters = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                letters.append(c);
+            }
+        }
+        return letters.toString();
+    }
+
+    // ==================== Simplifying ====================
+
+    // Douglas-Peucker on every ring, rings that collapse below a triangle (rocks, piers) are dropped
+    static List<Polygon> simplify(List<Polygon> polygons, double toleranceMetres) {
+        List<Polygon> simplified = new ArrayList<>(polygons.size());
+        for (Polygon polygon : polygons) {
+            int count = polygon.lat.length;
+            if (count < 3) {
+                continue;
+            }
+            boolean[] keep = new boolean[count];
+
+            // A closed ring: split it at the vertex farthest from the first one
+            int far = 0;
+            double farthest = -1;
+            for (int i = 1; i < count; i++) {
+                double dx = (polygon.lon[i] - polygon.lon[0]) * METRES_PER_DEGREE_LON;
+                double dy = (polygon.lat[i] - polygon.lat[0]) * METRES_PER_DEGREE_LAT;
+                double distance = dx * dx + dy * dy;
+                if (distance > farthest) {
+                    farthest = distance;
+                    far = i;
+                }
+            }
+            keep[0] = true;
+            keep[far] = true;
+            markKept(polygon, 0, far, toleranceMetres, keep);
+            markKept(polygon, far, count, toleranceMetres, keep);
+
+            int kept = 0;
+            for (boolean k : keep) {
+                kept += k ? 1 : 0;
+            }
+            if (kept < 3) {
+                continue;
+            }
+            float[] lat = new float[kept];
+            float[] lon = new float[kept];
+            for (int i = 0, j = 0; i < count; i++) {
+                if (keep[i]) {
+                    lat[j] = polygon.lat[i];
+                    lon[j] = polygon.lon[i];
+                    j++;
+                }
+            }
+            simplified.add(new Polygon(polygon.district, lat, lon));
+        }
+        return simplified;
+    }
+
+    // Keeps the vertices between first and last (exclusive, last == count wraps to 0) that are further than
+    // the tolerance from the chord, with an explicit stack since coastline rings run to tens of thousands
+    private static void markKept(Polygon polygon, int first, int last, double toleranceMetres, boolean[] keep) {
+        int count = polygon.lat.length;
+        ArrayList<int[]> stack = new ArrayList<>();
+        stack.add(new int[]{first, last});
+        while (!stack.isEmpty()) {
+            int[] span = stack.remove(stack.size() - 1);
+            int start = span[0];
+            int end = span[1];
+            if (end - start < 2) {
+                continue;
+            }
+
+            double ax = polygon.lon[start] * METRES_PER_DEGREE_LON;
+            double ay = polygon.lat[start] * METRES_PER_DEGREE_LAT;
+            double bx = polygon.lon[end % count] * METRES_PER_DEGREE_LON;
+            double by = polygon.lat[end % count] * METRES_PER_DEGREE_LAT;
+            double dx = bx - ax;
+            double dy = by - ay;
+            double length = Math.sqrt(dx * dx + dy * dy);
+
+            int worst = -1;
+            double worstDistance = toleranceMetres;
+            for (int i = start + 1; i < end; i++) {
+                double px = polygon.lon[i] * METRES_PER_DEGREE_LON - ax;
+                double py = polygon.lat[i] * METRES_PER_DEGREE_LAT - ay;
+                double distance = length > 0 ? Math.abs(px * dy - py * dx) / length : Math.sqrt(px * px + py * py);
+                if (distance > worstDistance) {
+                    worstDistance = distance;
+                    worst = i;
+                }
+            }
+            if (worst >= 0) {
+                keep[worst] = true;
+                stack.add(new int[]{start, worst});
+                stack.add(new int[]{worst, end});
+            }
+        }
+    }
+
+    // ==================== HKDB ====================
+
+    // The layout documented on DistrictBoundaries, polygons sorted by minLat
+    public static byte[] pack(List<Polygon> polygons) throws IOException {
+        List<Polygon> sorted = new ArrayList<>(polygons);
+        sorted.sort(Comparator.comparingDouble(Polygon::minLat));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(sorted.size());
+        for (Polygon polygon : sorted) {
+            float minLat = Float.MAX_VALUE;
+            float minLon = Float.MAX_VALUE;
+            float maxLat = -Float.MAX_VALUE;
+            float maxLon = -Float.MAX_VALUE;
+            for (int i = 0; i < polygon.lat.length; i++) {
+                minLat = Math.min(minLat, polygon.lat[i]);
+                minLon = Math.min(minLon, polygon.lon[i]);
+                maxLat = Math.max(maxLat, polygon.lat[i]);
+                maxLon = Math.max(maxLon, polygon.lon[i]);
+            }
+
+            out.writeInt(polygon.district.ordinal());
+            out.writeFloat(minLat);
+            out.writeFloat(minLon);
+            out.writeFloat(maxLat);
+            out.writeFloat(maxLon);
+            out.writeInt(polygon.lat.length);
+            for (int i = 0; i < polygon.lat.length; i++) {
+                out.writeFloat(polygon.lat[i]);
+                out.writeFloat(polygon.lon[i]);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
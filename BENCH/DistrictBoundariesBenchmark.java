@@ -0,0 +1,203 @@
+package com.example.project.bench;
+
+import com.example.project.core.District;
+import com.example.project.core.DistrictBoundaries;
+import com.example.project.core.DistrictMapper;
+import com.example.project.core.FileAssetSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Point-in-polygon lookups over a generated HKDB file, should stay in the microseconds
+// The real boundaries are not in the tree, so the file is made up with the shape of the real thing:
+// 18 districts tiling Hong Kong (Voronoi cells of the centroids), each ring with verticesPerDistrict
+// vertices, plus ISLETS small islands for the Islands District. A real file from BoundaryPacker at 15 m
+// tolerance has a few hundred to a couple of thousand vertices per district
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistrictBoundariesBenchmark {
+
+    private static final int POINTS = 1024;
+    private static final int ISLETS = 24;
+    private static final int ISLET_VERTICES = 48;
+
+    // Hong Kong, the same box the points are drawn from in DistrictMapperBenchmark
+    static final double MIN_LATITUDE = 22.15;
+    static final double MAX_LATITUDE = 22.57;
+    static final double MIN_LONGITUDE = 113.83;
+    static final double MAX_LONGITUDE = 114.44;
+
+    // Flat metres around Hong Kong, only used to build the cells
+    private static final double METRES_PER_DEGREE_LAT = 110_750;
+    private static final double METRES_PER_DEGREE_LON = 103_000;
+
+    @Param({"250", "1000"})
+    public int verticesPerDistrict;
+
+    private DistrictBoundaries boundaries;
+    private final double[] latitude = new double[POINTS];
+    private final double[] longitude = new double[POINTS];
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        File dir = writeAsset(generate(verticesPerDistrict, new Random(3457)));
+
+        // Through DistrictMapper the way the app loads it, so findDistrict takes the polygon path
+        DistrictMapper.init(new FileAssetSource(dir));
+        DistrictMapper.findDistrict(22.3, 114.1);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((boundaries = DistrictBoundaries.get()) == null) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Boundaries did not load from " + dir);
+            }
+            Thread.sleep(10);
+        }
+
+        Random random = new Random(3457);
+        for (int i = 0; i < POINTS; i++) {
+            latitude[i] = MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE);
+            longitude[i] = MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE);
+        }
+    }
+
+    @Benchmark
+    public District find() {
+        int i = next++ & (POINTS - 1);
+        return boundaries.find(latitude[i], longitude[i]);
+    }
+
+    // What MainActivity calls on a GPS fix once the boundaries are loaded
+    @Benchmark
+    public DistrictMapper.DistrictLocation findDistrict() {
+        int i = next++ & (POINTS - 1);
+        return DistrictMapper.findDistrict(latitude[i], longitude[i]);
+    }
+
+    static File writeAsset(List<BoundaryPacker.Polygon> polygons) throws IOException {
+        File dir = Files.createTempDirectory("hkdb").toFile();
+        File file = new File(dir, DistrictBoundaries.ASSET_NAME);
+        Files.write(file.toPath(), BoundaryPacker.pack(polygons));
+        file.deleteOnExit();
+        dir.deleteOnExit();
+        return dir;
+    }
+
+    // ==================== Generated boundaries ====================
+
+    // Each district's cell is the part of the box closer to its centroid than to any other,
+    // its edges cut into verticesPerDistrict vertices in all
+    static List<BoundaryPacker.Polygon> generate(int verticesPerDistrict, Random random) {
+        List<BoundaryPacker.Polygon> polygons = new ArrayList<>();
+        double[][] centroids = new double[District.COUNT][];
+        for (int i = 0; i < District.COUNT; i++) {
+            DistrictMapper.DistrictLocation location = DistrictMapper.getLocation(District.get(i));
+            centroids[i] = new double[]{location.longitude * METRES_PER_DEGREE_LON, location.latitude * METRES_PER_DEGREE_LAT};
+        }
+
+        for (int i = 0; i < District.COUNT; i++) {
+            List<double[]> cell = new ArrayList<>();
+            cell.add(new double[]{MIN_LONGITUDE * METRES_PER_DEGREE_LON, MIN_LATITUDE * METRES_PER_DEGREE_LAT});
+            cell.add(new double[]{MAX_LONGITUDE * METRES_PER_DEGREE_LON, MIN_LATITUDE * METRES_PER_DEGREE_LAT});
+            cell.add(new double[]{MAX_LONGITUDE * METRES_PER_DEGREE_LON, MAX_LATITUDE * METRES_PER_DEGREE_LAT});
+            cell.add(new double[]{MIN_LONGITUDE * METRES_PER_DEGREE_LON, MAX_LATITUDE * METRES_PER_DEGREE_LAT});
+            for (int j = 0; j < District.COUNT; j++) {
+                if (j != i) {
+                    cell = clipCloserTo(cell, centroids[i], centroids[j]);
+                }
+            }
+            polygons.add(densify(District.get(i), cell, verticesPerDistrict));
+        }
+
+        DistrictMapper.DistrictLocation islands = DistrictMapper.getLocation(District.ISLANDS);
+        for (int i = 0; i < ISLETS; i++) {
+            double centreLat = islands.latitude + (random.nextDouble() - 0.5) * 0.12;
+            double centreLon = islands.longitude + (random.nextDouble() - 0.5) * 0.16;
+            double radius = 200 + random.nextDouble() * 1200;
+            float[] lat = new float[ISLET_VERTICES];
+            float[] lon = new float[ISLET_VERTICES];
+            for (int v = 0; v < ISLET_VERTICES; v++) {
+                double angle = 2 * Math.PI * v / ISLET_VERTICES;
+                double r = radius * (0.7 + 0.3 * random.nextDouble());
+                lat[v] = (float) (centreLat + r * Math.sin(angle) / METRES_PER_DEGREE_LAT);
+                lon[v] = (float) (centreLon + r * Math.cos(angle) / METRES_PER_DEGREE_LON);
+            }
+            polygons.add(new BoundaryPacker.Polygon(District.ISLANDS, lat, lon));
+        }
+        return polygons;
+    }
+
+    // Sutherland-Hodgman against one half plane: the points closer to own than to other
+    private static List<double[]> clipCloserTo(List<double[]> polygon, double[] own, double[] other) {
+        double nx = other[0] - own[0];
+        double ny = other[1] - own[1];
+        double limit = (other[0] * other[0] + other[1] * other[1] - own[0] * own[0] - own[1] * own[1]) / 2;
+
+        List<double[]> clipped = new ArrayList<>();
+        for (int k = 0; k < polygon.size(); k++) {
+            double[] a = polygon.get(k);
+            double[] b = polygon.get((k + 1) % polygon.size());
+            double da = a[0] * nx + a[1] * ny - limit;
+            double db = b[0] * nx + b[1] * ny - limit;
+            if (da <= 0) {
+                clipped.add(a);
+            }
+            if ((da < 0 && db > 0) || (da > 0 && db < 0)) {
+                double t = da / (da - db);
+                clipped.add(new double[]{a[0] + t * (b[0] - a[0]), a[1] + t * (b[1] - a[1])});
+            }
+        }
+        return clipped;
+    }
+
+    // Cut every edge in proportion to its length so the ring has about the given number of vertices
+    private static BoundaryPacker.Polygon densify(District district, List<double[]> cell, int vertices) {
+        double perimeter = 0;
+        for (int k = 0; k < cell.size(); k++) {
+            perimeter += length(cell.get(k), cell.get((k + 1) % cell.size()));
+        }
+
+        List<double[]> points = new ArrayList<>();
+        for (int k = 0; k < cell.size(); k++) {
+            double[] a = cell.get(k);
+            double[] b = cell.get((k + 1) % cell.size());
+            int steps = Math.max(1, (int) Math.round(vertices * length(a, b) / perimeter));
+            for (int s = 0; s < steps; s++) {
+                double t = (double) s / steps;
+                points.add(new double[]{a[0] + t * (b[0] - a[0]), a[1] + t * (b[1] - a[1])});
+            }
+        }
+
+        float[] lat = new float[points.size()];
+        float[] lon = new float[points.size()];
+        for (int v = 0; v < points.size(); v++) {
+            lon[v] = (float) (points.get(v)[0] / METRES_PER_DEGREE_LON);
+            lat[v] = (float) (points.get(v)[1] / METRES_PER_DEGREE_LAT);
+        }
+        return new BoundaryPacker.Polygon(district, lat, lon);
+    }
+
+    private static double length(double[] a, double[] b) {
+        return Math.hypot(b[0] - a[0], b[1] - a[1]);
+    }
+}
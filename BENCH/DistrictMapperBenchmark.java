@@ -0,0 +1,69 @@
+package com.example.project.bench;
+
+import com.example.project.core.DistrictMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+// GPS fix to district, run on every location update
+// The points are fixed (seeded) and cycled through so the branch predictor cannot learn one answer
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistrictMapperBenchmark {
+
+    private static final int POINTS = 1024;
+
+    // Hong Kong, the area nearly every real fix is in
+    private final double[] latitude = new double[POINTS];
+    private final double[] longitude = new double[POINTS];
+
+    // Far outside Hong Kong, where findNearestDistrict compares every district
+    private final double[] farLatitude = new double[POINTS];
+    private final double[] farLongitude = new double[POINTS];
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3457);
+        for (int i = 0; i < POINTS; i++) {
+            latitude[i] = 22.15 + random.nextDouble() * 0.42;
+            longitude[i] = 113.83 + random.nextDouble() * 0.53;
+            farLatitude[i] = 23.0 + random.nextDouble() * 10;
+            farLongitude[i] = 115.0 + random.nextDouble() * 10;
+        }
+    }
+
+    @Benchmark
+    public DistrictMapper.DistrictLocation findNearestDistrict() {
+        int i = next++ & (POINTS - 1);
+        return DistrictMapper.findNearestDistrict(latitude[i], longitude[i]);
+    }
+
+    @Benchmark
+    public DistrictMapper.DistrictLocation findNearestDistrictFar() {
+        int i = next++ & (POINTS - 1);
+        return DistrictMapper.findNearestDistrict(farLatitude[i], farLongitude[i]);
+    }
+
+    // Without DistrictMapper.init this is the centroid path, what the app does until the boundaries are loaded
+    @Benchmark
+    public DistrictMapper.DistrictLocation findDistrict() {
+        int i = next++ & (POINTS - 1);
+        return DistrictMapper.findDistrict(latitude[i], longitude[i]);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.project.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Local stand-in for the HKO open data API that serves the recorded payloads and misbehaves on demand:
+// 503s, slow answers, dropped connections, or being down altogether. ResilienceDrill runs the
+// resilience scenarios against it. Standalone, for pointing a debug build at it with HKOApiHelper.setBaseUrl:
+//   FaultServer [port] [--error-rate 0.3] [--slow-rate 0.2] [--slow-ms 5000] [--drop-rate 0.1] [--down]
+public class FaultServer {
+
+    public static final String PATH = "/weatherAPI/opendata/weather.php";
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    // Scripted faults, the next n requests get them, checked before the random ones
+    private final AtomicInteger failNext = new AtomicInteger();
+    private final AtomicInteger slowNext = new AtomicInteger();
+
+    private volatile double errorRate;
+    private volatile double slowRate;
+    private volatile double dropRate;
+    private volatile long slowMs = 5000;
+    private volatile boolean down;
+
+    public FaultServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext(PATH, this::handle);
+        // Slow answers must not hold up the others, like a real server
+        server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fault-server");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public FaultServer start() {
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    // What to pass to HKOApiHelper.setBaseUrl
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + PATH;
+    }
+
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    public void failNext(int count) {
+        failNext.set(count);
+    }
+
+    public void slowNext(int count, long ms) {
+        slowMs = ms;
+        slowNext.set(count);
+    }
+
+    public void setErrorRate(double rate) {
+        errorRate = rate;
+    }
+
+    public void setSlow(double rate, long ms) {
+        slowRate = rate;
+        slowMs = ms;
+    }
+
+    public void setDropRate(double rate) {
+        dropRate = rate;
+    }
+
+    // Every connection is dropped without an answer
+    public void setDown(boolean isDown) {
+        down = isDown;
+    }
+
+    public void reset() {
+        failNext.set(0);
+        slowNext.set(0);
+        errorRate = 0;
+        slowRate = 0;
+        dropRate = 0;
+        down = false;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            if (down || random.nextDouble() < dropRate) {
+                // Closing without a status line, the client sees the connection die
+                return;
+            }
+            if (takeOne(failNext) || random.nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            if (takeOne(slowNext) || random.nextDouble() < slowRate) {
+                try {
+                    Thread.sleep(slowMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            String payload;
+            try {
+                payload = Payloads.read(queryParameter(exchange.getRequestURI(), "dataType"),
+                        queryParameter(exchange.getRequestURI(), "lang"));
+            } catch (IOException e) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            byte[] body = payload.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static boolean takeOne(AtomicInteger remaining) {
+        int left;
+        while ((left = remaining.get()) > 0) {
+            if (remaining.compareAndSet(left, left - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String queryParameter(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return "";
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                return pair.substring(equals + 1);
+            }
+        }
+        return "";
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 && !args[0].startsWith("--") ? Integer.parseInt(args[0]) : 8080;
+        FaultServer server = new FaultServer(port);
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--error-rate": server.setErrorRate(Double.parseDouble(args[++i])); break;
+                case "--slow-rate": server.setSlow(Double.parseDouble(args[++i]), server.slowMs); break;
+                case "--slow-ms": server.setSlow(server.slowRate, Long.parseLong(args[++i])); break;
+                case "--drop-rate": server.setDropRate(Double.parseDouble(args[++i])); break;
+                case "--down": server.setDown(true); break;
+                default: break;
+            }
+        }
+        server.start();
+        System.out.println("Serving " + Payloads.dir().getAbsolutePath() + " at " + server.getBaseUrl());
+    }
+}
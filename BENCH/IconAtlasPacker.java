@@ -0,0 +1,149 @@
+package com.example.project.bench;
+
+import com.example.project.core.HKOApiHelper;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import javax.imageio.ImageIO;
+
+// Builds ASSETS/hko_icons_atlas.png in the layout WeatherIcons slices: CELL_SIZE square cells,
+// COLUMNS per row, one per code in KNOWN_CODES order, each icon scaled to fit and centred
+//
+// Icons come from HKO (the same URLs WeatherIcons falls back to), or from a directory of pic<code>.png
+// With --placeholder every cell is a numbered disc instead, to try the slicing on a device. Never ship that one:
+// every known code would show a disc, without an atlas WeatherIcons loads them all from HKO
+public class IconAtlasPacker {
+
+    // Must match WeatherIcons: ATLAS_COLUMNS, the largest size shown and KNOWN_CODES
+    static final int COLUMNS = 8;
+    static final int CELL_SIZE = 150;
+    static final int[] KNOWN_CODES = {
+            50, 51, 52, 53, 54,
+            60, 61, 62, 63, 64, 65,
+            70, 71, 72, 73, 74, 75, 76, 77,
+            80, 81, 82, 83, 84, 85,
+            90, 91, 92, 93
+    };
+
+    private static final String ATLAS_ASSET = "hko_icons_atlas.png";
+    private static final int TIMEOUT_MS = 15000;
+
+    public static void main(String[] args) throws Exception {
+        File outputDir = new File("ASSETS");
+        File sourceDir = null;
+        boolean placeholder = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--from": sourceDir = new File(args[++i]); break;
+                case "--placeholder": placeholder = true; break;
+                default: outputDir = new File(args[i]); break;
+            }
+        }
+
+        BufferedImage[] icons = new BufferedImage[KNOWN_CODES.length];
+        for (int i = 0; i < KNOWN_CODES.length; i++) {
+            int code = KNOWN_CODES[i];
+            if (placeholder) {
+                icons[i] = placeholder(code);
+            } else if (sourceDir != null) {
+                icons[i] = read(new File(sourceDir, "pic" + code + ".png"));
+            } else {
+                icons[i] = download(HKOApiHelper.getHKOOfficialIconUrl(code));
+            }
+        }
+
+        BufferedImage atlas = pack(icons);
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("Cannot create " + outputDir.getAbsolutePath());
+        }
+        File file = new File(outputDir, ATLAS_ASSET);
+        if (!ImageIO.write(atlas, "png", file)) {
+            throw new IOException("No PNG writer");
+        }
+        System.out.println(file + ": " + atlas.getWidth() + "x" + atlas.getHeight() + ", "
+                + KNOWN_CODES.length + " icons, " + file.length() / 1024 + " KB");
+    }
+
+    // The atlas for icons[i] = KNOWN_CODES[i]
+    public static BufferedImage pack(BufferedImage[] icons) {
+        int rows = (icons.length + COLUMNS - 1) / COLUMNS;
+        BufferedImage atlas = new BufferedImage(COLUMNS * CELL_SIZE, rows * CELL_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        for (int i = 0; i < icons.length; i++) {
+            BufferedImage icon = icons[i];
+            // Same as Picasso's centerInside on the network path
+            double scale = Math.min((double) CELL_SIZE / icon.getWidth(), (double) CELL_SIZE / icon.getHeight());
+            int width = (int) Math.round(icon.getWidth() * scale);
+            int height = (int) Math.round(icon.getHeight() * scale);
+            int x = (i % COLUMNS) * CELL_SIZE + (CELL_SIZE - width) / 2;
+            int y = (i / COLUMNS) * CELL_SIZE + (CELL_SIZE - height) / 2;
+            g.drawImage(icon, x, y, width, height, null);
+        }
+        g.dispose();
+        return atlas;
+    }
+
+    private static BufferedImage read(File file) throws IOException {
+        BufferedImage image = ImageIO.read(file);
+        if (image == null) {
+            throw new IOException(file + " is not an image");
+        }
+        return image;
+    }
+
+    private static BufferedImage download(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MS);
+        connection.setReadTimeout(TIMEOUT_MS);
+        try {
+            if (connection.getResponseCode() != 200) {
+                throw new IOException(url + " returned " + connection.getResponseCode());
+            }
+            try (InputStream in = connection.getInputStream()) {
+                BufferedImage image = ImageIO.read(in);
+                if (image == null) {
+                    throw new IOException(url + " is not an image");
+                }
+                return image;
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    // A disc with the code on it, coloured by the code's group (50s sunny, 60s cloudy and rain, ...)
+    private static BufferedImage placeholder(int code) {
+        Color[] groups = {
+                new Color(0xF5A623), new Color(0x7F8C8D), new Color(0x4A90D9), new Color(0x50B5A0), new Color(0x9B59B6)
+        };
+        Color color = groups[Math.max(0, Math.min(groups.length - 1, code / 10 - 5))];
+
+        BufferedImage image = new BufferedImage(CELL_SIZE, CELL_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        int margin = CELL_SIZE / 10;
+        g.setColor(color);
+        g.fillOval(margin, margin, CELL_SIZE - 2 * margin, CELL_SIZE - 2 * margin);
+
+        g.setColor(Color.WHITE);
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, CELL_SIZE / 3));
+        FontMetrics metrics = g.getFontMetrics();
+        String text = String.valueOf(code);
+        g.drawString(text, (CELL_SIZE - metrics.stringWidth(text)) / 2,
+                (CELL_SIZE - metrics.getHeight()) / 2 + metrics.getAscent());
+        g.dispose();
+        return image;
+    }
+}
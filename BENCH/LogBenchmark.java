@@ -0,0 +1,66 @@
+package com.example.project.bench;
+
+import com.example.project.core.HKOLog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// One per-record debug line from the rhrread temperature loop, as HKOLog takes it and as it used to be written
+// At WARN (release) "parameterized" should show gc.alloc.rate.norm of 0 B/op, "concatenated" what it cost before
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogBenchmark {
+
+    private static final String TAG = "LogBenchmark";
+
+    // Formats like the real loggers do but writes nowhere, so the debug runs measure HKOLog and not stderr
+    static final HKOLog.Logger DISCARD = new HKOLog.Logger() {
+        @Override
+        public void d(String tag, String message) {
+        }
+
+        @Override
+        public void w(String tag, String message, Throwable error) {
+        }
+
+        @Override
+        public void e(String tag, String message, Throwable error) {
+        }
+    };
+
+    @Param({"WARN", "DEBUG"})
+    public String level;
+
+    private String place = "Hong Kong Observatory";
+    private String district = "Central & Western District";
+    private double temperature = 28.4;
+
+    @Setup
+    public void setUp() {
+        HKOLog.setLogger(DISCARD);
+        HKOLog.setMinLevel("DEBUG".equals(level) ? HKOLog.DEBUG : HKOLog.WARN);
+    }
+
+    @Benchmark
+    public void parameterized() {
+        HKOLog.d(TAG, "Temp: {} → {} = {}°C", place, district, temperature);
+    }
+
+    @Benchmark
+    public void concatenated() {
+        HKOLog.d(TAG, "Temp: " + place + " → " + district + " = " + temperature + "°C");
+    }
+}
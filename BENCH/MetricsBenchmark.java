@@ -0,0 +1,42 @@
+package com.example.project.bench;
+
+import com.example.project.core.HKOApiHelper;
+import com.example.project.core.HKOMetrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// What one HKOMetrics call adds to the stage it times: two nanoTime reads and the atomic adds,
+// alone and with parse threads recording into the same histogram. Should allocate 0 B/op
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @Benchmark
+    public void record() {
+        HKOMetrics.record(HKOMetrics.Stage.PARSE, HKOApiHelper.DATA_TYPE_RHRREAD, System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        HKOMetrics.record(HKOMetrics.Stage.PARSE, HKOApiHelper.DATA_TYPE_RHRREAD, System.nanoTime());
+    }
+
+    @Benchmark
+    public void count() {
+        HKOMetrics.count(HKOMetrics.Counter.MEMORY_HIT, HKOApiHelper.DATA_TYPE_RHRREAD);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.project.bench;
+
+import com.example.project.core.HKOApiHelper;
+import com.example.project.core.HKOJsonReader;
+import com.example.project.core.HKOLog;
+import com.example.project.core.StationIndex;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+
+// The parsers HKOApiHelper runs on every refresh, over the payloads in BENCH/payloads
+// Each op parses one whole response from memory, so only the parse is timed and not the connection it streams from
+// level=WARN is a release build, nothing the debug log lines need is allocated. level=DEBUG formats every
+// line into a logger that drops it
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"WARN", "DEBUG"})
+    public String level;
+
+    private String rhrread;
+    private String fnd;
+    private String flw;
+
+    // Every place name in rhrread, as the JSON array StationIndex.readPlace reads them from
+    private String places;
+
+    @Setup
+    public void setUp() throws IOException, JSONException {
+        HKOLog.setLogger(LogBenchmark.DISCARD);
+        HKOLog.setMinLevel("DEBUG".equals(level) ? HKOLog.DEBUG : HKOLog.WARN);
+
+        rhrread = Payloads.read(HKOApiHelper.DATA_TYPE_RHRREAD, "en");
+        fnd = Payloads.read(HKOApiHelper.DATA_TYPE_FND, "en");
+        flw = Payloads.read(HKOApiHelper.DATA_TYPE_FLW, "en");
+
+        ArrayList<String> names = collectPlaces(rhrread);
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(names.get(i).replace("\"", "\\\"")).append('"');
+        }
+        places = json.append(']').toString();
+    }
+
+    // rhrread: temperature, rainfall and humidity mapped to districts, icon and warnings
+    @Benchmark
+    public HKOApiHelper.RealTimeData rhrread() throws IOException, JSONException {
+        return HKOApiHelper.parseRealTimeData(new StringReader(rhrread));
+    }
+
+    // fnd: the first days of the 9-day forecast, with their display text
+    @Benchmark
+    public ArrayList<HKOApiHelper.SevenDayForecast> fnd() throws IOException, JSONException {
+        return HKOApiHelper.parseSevenDayForecast(new StringReader(fnd));
+    }
+
+    // flw: generalSituation, still read through JSONObject
+    @Benchmark
+    public String flw() throws IOException, JSONException {
+        return HKOApiHelper.parseGeneralSituationText(new StringReader(flw));
+    }
+
+    // Place name to district for every reading in rhrread, the lookup inside the temperature and rainfall loops
+    @Benchmark
+    public void stationLookup(Blackhole blackhole) throws IOException, JSONException {
+        StationIndex stations = StationIndex.get();
+        HKOJsonReader reader = HKOJsonReader.obtain(new StringReader(places));
+        try {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                blackhole.consume(stations.readPlace(reader));
+            }
+            reader.endArray();
+        } finally {
+            reader.recycle();
+        }
+    }
+
+    // Every "place" string in the payload, in order
+    private static ArrayList<String> collectPlaces(String payload) throws IOException, JSONException {
+        ArrayList<String> names = new ArrayList<>();
+        HKOJsonReader reader = new HKOJsonReader(new StringReader(payload));
+        collectPlaces(reader, names);
+        return names;
+    }
+
+    private static void collectPlaces(HKOJsonReader reader, ArrayList<String> names) throws IOException, JSONException {
+        switch (reader.peek()) {
+            case HKOJsonReader.BEGIN_OBJECT:
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if ("place".equals(reader.nextName()) && reader.peek() == HKOJsonReader.STRING) {
+                        names.add(reader.nextString(""));
+                    } else {
+                        collectPlaces(reader, names);
+                    }
+                }
+                reader.endObject();
+                break;
+            case HKOJsonReader.BEGIN_ARRAY:
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    collectPlaces(reader, names);
+                }
+                reader.endArray();
+                break;
+            default:
+                reader.skipValue();
+                break;
+        }
+    }
+}
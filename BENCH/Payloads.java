@@ -0,0 +1,45 @@
+package com.example.project.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+// The HKO responses the benchmarks run over, from BENCH/payloads (or -Dhko.payloads=<dir>)
+// One file per dataType and lang, named like the disk cache: rhrread_en.json, fnd_en.json, flw_en.json
+// The committed ones are reconstructed to the published schema, not recorded. RecordPayloads replaces them
+// and leaves recorded.txt saying when, so results can be told apart
+final class Payloads {
+
+    static final String DIR_PROPERTY = "hko.payloads";
+    static final String DEFAULT_DIR = "BENCH/payloads";
+    static final String RECORDED_FILE = "recorded.txt";
+
+    private Payloads() {
+    }
+
+    static File dir() {
+        return new File(System.getProperty(DIR_PROPERTY, DEFAULT_DIR));
+    }
+
+    static File file(String dataType, String lang) {
+        return new File(dir(), dataType + "_" + lang + ".json");
+    }
+
+    // Where the payloads came from, for the top of a benchmark report
+    static String describe() throws IOException {
+        File recorded = new File(dir(), RECORDED_FILE);
+        if (!recorded.exists()) {
+            return dir() + ": reconstructed payloads, not recorded from HKO";
+        }
+        return dir() + ": " + new String(Files.readAllBytes(recorded.toPath()), StandardCharsets.UTF_8).trim();
+    }
+
+    static String read(String dataType, String lang) throws IOException {
+        File file = file(dataType, lang);
+        if (!file.exists()) {
+            throw new IOException("No payload at " + file.getAbsolutePath() + ", run RecordPayloads or set -D" + DIR_PROPERTY);
+        }
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.project.bench;
+
+import com.example.project.core.HKOApiHelper;
+import com.example.project.core.HKOTransport;
+import com.example.project.core.OkHttpTransport;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.OffsetDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Downloads the current rhrread, fnd and flw payloads into the payload directory, replacing what is there
+// Re-record during a rainstorm or typhoon signal to benchmark the heavier warning payloads
+public class RecordPayloads {
+
+    private static final String BASE_URL = "https://data.weather.gov.hk/weatherAPI/opendata/weather.php";
+    private static final String[] DATA_TYPES = {
+            HKOApiHelper.DATA_TYPE_RHRREAD, HKOApiHelper.DATA_TYPE_FND, HKOApiHelper.DATA_TYPE_FLW
+    };
+
+    public static void main(String[] args) throws Exception {
+        String lang = args.length > 0 ? args[0] : "en";
+        File dir = Payloads.dir();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir.getAbsolutePath());
+        }
+
+        OkHttpTransport transport = new OkHttpTransport();
+        for (String dataType : DATA_TYPES) {
+            String url = BASE_URL + "?dataType=" + dataType + "&lang=" + lang;
+            HKOTransport.Response response = get(transport, url);
+            if (response.code != 200 || response.body == null) {
+                response.close();
+                throw new IOException(url + " returned " + response.code);
+            }
+
+            File file = Payloads.file(dataType, lang);
+            String payload = readFully(response);
+            Files.write(file.toPath(), payload.getBytes(StandardCharsets.UTF_8));
+            System.out.println(file + ": " + payload.length() + " chars");
+        }
+        String recorded = "recorded from " + BASE_URL + ", lang=" + lang + ", at " + OffsetDateTime.now() + "\n";
+        Files.write(new File(dir, Payloads.RECORDED_FILE).toPath(), recorded.getBytes(StandardCharsets.UTF_8));
+        System.exit(0);
+    }
+
+    private static String readFully(HKOTransport.Response response) throws IOException {
+        try (Reader body = response.body) {
+            StringBuilder builder = new StringBuilder();
+            char[] buffer = new char[4096];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                builder.append(buffer, 0, read);
+            }
+            return builder.toString();
+        }
+    }
+
+    private static HKOTransport.Response get(HKOTransport transport, String url) throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        HKOTransport.Response[] response = new HKOTransport.Response[1];
+        IOException[] error = new IOException[1];
+        transport.enqueue(new HKOTransport.Request(url, null, null), new HKOTransport.Callback() {
+            @Override
+            public void onResponse(HKOTransport.Response result) {
+                response[0] = result;
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(IOException e) {
+                error[0] = e;
+                done.countDown();
+            }
+        });
+
+        if (!done.await(60, TimeUnit.SECONDS)) {
+            throw new IOException("Timed out fetching " + url);
+        }
+        if (error[0] != null) {
+            throw error[0];
+        }
+        return response[0];
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.project.bench;
+
+import com.example.project.core.DistrictReadings;
+import com.example.project.core.HKOApiHelper;
+import com.example.project.core.HKOMetrics;
+import com.example.project.core.HKOTransport;
+import com.example.project.core.OkHttpTransport;
+import com.example.project.core.ResilientTransport;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Runs ResilientTransport and HKOApiHelper against a local FaultServer and checks each behaviour:
+// retries, hedging, timeouts, the circuit breaker and serving the cache while HKO is down.
+// Timeouts are scaled down so the whole drill takes a few seconds. Prints the HKO metrics at the end,
+// exits with 1 if a check failed
+public class ResilienceDrill {
+
+    // Scaled down versions of the app's policies
+    private static final long TIMEOUT_MS = 1000;
+    private static final long HEDGE_AFTER_MS = 200;
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_MS = 1500;
+
+    private final FaultServer server;
+    private final ResilientTransport transport;
+    private int failed;
+
+    ResilienceDrill(FaultServer server, HKOTransport delegate) {
+        this.server = server;
+        this.transport = new ResilientTransport(delegate);
+        transport.setPolicy(HKOApiHelper.DATA_TYPE_RHRREAD, new ResilientTransport.Policy(TIMEOUT_MS, 3, HEDGE_AFTER_MS));
+        transport.setPolicy(HKOApiHelper.DATA_TYPE_FLW, new ResilientTransport.Policy(TIMEOUT_MS, 3, 0));
+        transport.setPolicy(HKOApiHelper.DATA_TYPE_FND, new ResilientTransport.Policy(TIMEOUT_MS, 2, 0));
+        transport.setCircuitBreaker(FAILURE_THRESHOLD, OPEN_MS);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.exit(run(new OkHttpTransport()) ? 0 : 1);
+    }
+
+    // The delegate is the transport under the resilience layer, OkHttpTransport in the app
+    public static boolean run(HKOTransport delegate) throws Exception {
+        FaultServer server = new FaultServer(0).start();
+        try {
+            ResilienceDrill drill = new ResilienceDrill(server, delegate);
+            drill.runAll();
+            HKOMetrics.dump(new PrintWriter(System.out));
+            System.out.println(drill.failed == 0 ? "All checks passed" : drill.failed + " check(s) failed");
+            return drill.failed == 0;
+        } finally {
+            server.stop();
+        }
+    }
+
+    private void runAll() throws Exception {
+        Outcome outcome;
+
+        server.reset();
+        outcome = get(HKOApiHelper.DATA_TYPE_RHRREAD);
+        check("healthy: one request, 200", outcome.code == 200 && outcome.serverRequests == 1);
+        warmCache();
+
+        server.reset();
+        server.failNext(2);
+        outcome = get(HKOApiHelper.DATA_TYPE_FLW);
+        check("two 503s: retried to a 200 in three requests", outcome.code == 200 && outcome.serverRequests == 3);
+
+        server.reset();
+        server.failNext(5);
+        outcome = get(HKOApiHelper.DATA_TYPE_FND);
+        check("503 past the retry budget: gives up after two requests with the 503",
+                outcome.code == 503 && outcome.serverRequests == 2);
+
+        server.reset();
+        server.slowNext(1, 3 * TIMEOUT_MS);
+        outcome = get(HKOApiHelper.DATA_TYPE_RHRREAD);
+        check("slow first try: the hedge answers well before the timeout",
+                outcome.code == 200 && outcome.elapsedMs < TIMEOUT_MS);
+
+        server.reset();
+        server.slowNext(1, 3 * TIMEOUT_MS);
+        outcome = get(HKOApiHelper.DATA_TYPE_FLW);
+        check("hung try without a hedge: timed out and retried",
+                outcome.code == 200 && outcome.elapsedMs >= TIMEOUT_MS && outcome.elapsedMs < 3 * TIMEOUT_MS);
+
+        server.reset();
+        server.setDown(true);
+        for (int i = 0; i < FAILURE_THRESHOLD && !transport.isCircuitOpen(); i++) {
+            get(HKOApiHelper.DATA_TYPE_FND);
+        }
+        check("HKO down: the circuit opens", transport.isCircuitOpen());
+
+        int before = server.getRequestCount();
+        outcome = get(HKOApiHelper.DATA_TYPE_RHRREAD);
+        check("circuit open: fails at once without a request",
+                outcome.error instanceof ResilientTransport.CircuitOpenException
+                        && outcome.elapsedMs < 100 && server.getRequestCount() == before);
+
+        checkCacheWhileDown();
+
+        server.reset();
+        Thread.sleep(OPEN_MS + 100);
+        outcome = get(HKOApiHelper.DATA_TYPE_RHRREAD);
+        check("HKO back: the probe closes the circuit", outcome.code == 200 && !transport.isCircuitOpen());
+    }
+
+    // HKOApiHelper on the drill's transport, with the main screen's rhrread and flw in its memory cache
+    private void warmCache() throws InterruptedException {
+        HKOApiHelper.init(null, null);
+        HKOApiHelper.setBaseUrl(server.getBaseUrl());
+        HKOApiHelper.setTransport(transport);
+        MainScreen screen = getMainActivityData(Collections.emptySet(), true);
+        check("healthy: HKOApiHelper delivers and caches the main screen", screen.data
+                && screen.succeeded.length == 2 && screen.failed.length == 0);
+    }
+
+    // While the circuit is open HKOApiHelper keeps answering from its cache, and a dataType it has
+    // nothing cached for fails straight away instead of after the timeouts
+    private void checkCacheWhileDown() throws InterruptedException {
+        MainScreen screen = getMainActivityData(Collections.emptySet(), false);
+        check("circuit open: the main screen is still served from the cache", screen.data && !screen.error);
+
+        // A forced refresh with the cache on screen: no onError, but the scheduler learns both failed
+        // Same server, this only drops the results warmCache left for sharing so the refresh goes out
+        HKOApiHelper.setBaseUrl(server.getBaseUrl());
+        screen = getMainActivityData(new HashSet<>(Arrays.asList(
+                HKOApiHelper.DATA_TYPE_RHRREAD, HKOApiHelper.DATA_TYPE_FLW)), true);
+        check("circuit open, forced refresh: reported as failed, not as data",
+                !screen.data && !screen.error && screen.succeeded.length == 0 && screen.failed.length == 2);
+
+        String[] result = new String[1];
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+        HKOApiHelper.getSevenDayForecast(new HKOApiHelper.SevenDayCallback() {
+            @Override
+            public void onSevenDayDataReceived(ArrayList<HKOApiHelper.SevenDayForecast> forecasts) {
+                result[0] = "data";
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String error) {
+                result[0] = "error";
+                done.countDown();
+            }
+        });
+        done.await(30, TimeUnit.SECONDS);
+        long elapsedMs = (System.nanoTime() - start) / 1000000;
+        check("circuit open, nothing cached: onError at once", "error".equals(result[0]) && elapsedMs < 500);
+    }
+
+    // What the main screen's callback saw
+    private static class MainScreen {
+        volatile boolean data;
+        volatile boolean error;
+        volatile String[] succeeded = new String[0];
+        volatile String[] failed = new String[0];
+    }
+
+    // Waits for onRefreshed when there is a trip to the network, otherwise for the first callback
+    private MainScreen getMainActivityData(Set<String> force, boolean waitForRefresh) throws InterruptedException {
+        MainScreen screen = new MainScreen();
+        CountDownLatch done = new CountDownLatch(1);
+        HKOApiHelper.refreshMainActivityData(force, new HKOApiHelper.MainActivityCallback() {
+            @Override
+            public void onDataReceived(DistrictReadings districts, String generalWeather, String hkoHumidity,
+                                       int weatherIcon, String highLowTemp) {
+                screen.data = true;
+                if (!waitForRefresh) {
+                    done.countDown();
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                screen.error = true;
+                if (!waitForRefresh) {
+                    done.countDown();
+                }
+            }
+
+            @Override
+            public void onRefreshed(String[] succeeded, String[] failed) {
+                screen.succeeded = succeeded;
+                screen.failed = failed;
+                done.countDown();
+            }
+        });
+        done.await(30, TimeUnit.SECONDS);
+        return screen;
+    }
+
+    private void check(String name, boolean passed) {
+        System.out.println((passed ? "PASS  " : "FAIL  ") + name);
+        if (!passed) {
+            failed++;
+        }
+    }
+
+    private static class Outcome {
+        int code;
+        IOException error;
+        long elapsedMs;
+        int serverRequests;
+    }
+
+    private Outcome get(String dataType) throws InterruptedException {
+        Outcome outcome = new Outcome();
+        CountDownLatch done = new CountDownLatch(1);
+        int before = server.getRequestCount();
+        long start = System.nanoTime();
+        String url = server.getBaseUrl() + "?dataType=" + dataType + "&lang=en";
+        transport.enqueue(new HKOTransport.Request(url, dataType, null, null), new HKOTransport.Callback() {
+            @Override
+            public void onResponse(HKOTransport.Response response) {
+                outcome.code = response.code;
+                response.close();
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(IOException error) {
+                outcome.error = error;
+                done.countDown();
+            }
+        });
+        done.await(30, TimeUnit.SECONDS);
+        outcome.elapsedMs = (System.nanoTime() - start) / 1000000;
+        // Losing hedges and timed out tries may still be reaching the server
+        Thread.sleep(50);
+        outcome.serverRequests = server.getRequestCount() - before;
+        return outcome;
+    }
+}
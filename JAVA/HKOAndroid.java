@@ -0,0 +1,115 @@
+package com.example.project.Activitis;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.project.core.AssetSource;
+import com.example.project.core.HKOApiHelper;
+import com.example.project.core.HKOCache;
+import com.example.project.core.HKOLog;
+import com.example.project.core.HKOMetrics;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+// Wires the core HKO client into the app: Logcat, callbacks on the main thread,
+// the app cache directory and the APK assets. Every Activity calls init() in onCreate
+public class HKOAndroid {
+
+    private static boolean initialized = false;
+
+    public static synchronized void init(Context context) {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+
+        Context app = context.getApplicationContext();
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        HKOLog.setLogger(LOGCAT);
+        // Release builds keep warnings and errors only, debug lines are then never formatted
+        boolean debuggable = (app.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        HKOLog.setMinLevel(debuggable ? HKOLog.DEBUG : HKOLog.WARN);
+        HKOApiHelper.setCallbackExecutor(mainHandler::post);
+
+        AssetManager assets = app.getAssets();
+        HKOApiHelper.init(app.getCacheDir(), new ApkAssets(assets));
+        HKOCache.execute(() -> WeatherIcons.load(assets));
+    }
+
+    // Appends the HKO metrics to an Activity's dump:
+    //   adb shell dumpsys activity top              table of latencies (ms) and counters
+    //   adb shell dumpsys activity top --hko-json   the same as JSON, for collecting
+    //   adb shell dumpsys activity top --hko-reset  print, then start a new collection period
+    static void dumpMetrics(PrintWriter writer, String[] args) {
+        boolean json = false;
+        boolean reset = false;
+        if (args != null) {
+            for (String arg : args) {
+                json |= "--hko-json".equals(arg);
+                reset |= "--hko-reset".equals(arg);
+            }
+        }
+
+        writer.println();
+        if (json) {
+            writer.println(HKOMetrics.toJson());
+            writer.flush();
+        } else {
+            HKOMetrics.dump(writer);
+        }
+        if (reset) {
+            HKOMetrics.reset();
+        }
+    }
+
+    private static final HKOLog.Logger LOGCAT = new HKOLog.Logger() {
+        @Override
+        public void d(String tag, String message) {
+            Log.d(tag, message);
+        }
+
+        @Override
+        public void w(String tag, String message, Throwable error) {
+            Log.w(tag, message, error);
+        }
+
+        @Override
+        public void e(String tag, String message, Throwable error) {
+            Log.e(tag, message, error);
+        }
+    };
+
+    private static class ApkAssets implements AssetSource {
+        private final AssetManager assets;
+
+        ApkAssets(AssetManager assets) {
+            this.assets = assets;
+        }
+
+        @Override
+        public InputStream open(String name) throws IOException {
+            return assets.open(name);
+        }
+
+        @Override
+        public ByteBuffer map(String name) {
+            try (AssetFileDescriptor fd = assets.openFd(name);
+                 FileInputStream in = fd.createInputStream()) {
+                return in.getChannel().map(FileChannel.MapMode.READ_ONLY, fd.getStartOffset(), fd.getLength());
+            } catch (IOException e) {
+                // openFd fails for compressed assets
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.project.Activitis;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.WeakHashMap;
+
+// Weather icons ready to show, keyed by (iconCode, size in px), shared by every screen
+// LRU within a fixed memory budget. Evicted bitmaps that no view shows any more go to a pool
+// and are drawn over for the next icon of the same size instead of allocating a new one
+// Main thread only
+public class IconCache {
+
+    private static final int MEMORY_BUDGET_BYTES = (int) Math.min(4 * 1024 * 1024, Runtime.getRuntime().maxMemory() / 16);
+    private static final int POOL_BUDGET_BYTES = 1024 * 1024;
+
+    private static final LruCache<Long, Bitmap> cache = new LruCache<Long, Bitmap>(MEMORY_BUDGET_BYTES) {
+        @Override
+        protected int sizeOf(Long key, Bitmap bitmap) {
+            return bitmap.getAllocationByteCount();
+        }
+
+        @Override
+        protected void entryRemoved(boolean evicted, Long key, Bitmap oldValue, Bitmap newValue) {
+            if (evicted) {
+                evictionCount++;
+                if (!shownCount.containsKey(key)) {
+                    pool.put(oldValue);
+                }
+            }
+        }
+    };
+
+    private static final BitmapPool pool = new BitmapPool(POOL_BUDGET_BYTES);
+    private static final Paint scalePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private static final Rect sourceRect = new Rect();
+    private static final Rect targetRect = new Rect();
+
+    // Which key each view shows, and how many views show each key. A key still on screen is not pooled.
+    // Views that are gone without being rebound keep their count, their bitmaps are then left to the GC
+    private static final WeakHashMap<ImageView, Long> shownIn = new WeakHashMap<>();
+    private static final HashMap<Long, Integer> shownCount = new HashMap<>();
+
+    private static long hitCount;
+    private static long missCount;
+    private static long evictionCount;
+    private static long scaleCount;
+
+    private static long key(int iconCode, int size) {
+        return ((long) iconCode << 32) | size;
+    }
+
+    public static Bitmap get(int iconCode, int size) {
+        Bitmap bitmap = cache.get(key(iconCode, size));
+        if (bitmap != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return bitmap;
+    }
+
+    public static void put(int iconCode, int size, Bitmap bitmap) {
+        cache.put(key(iconCode, size), bitmap);
+    }
+
+    // Draw source into a size x size bitmap, centered and keeping its proportions, reusing a pooled bitmap if there is one
+    public static Bitmap scale(Bitmap source, int size) {
+        scaleCount++;
+        Bitmap target = pool.get(size);
+        if (target == null) {
+            target = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        } else {
+            target.eraseColor(Color.TRANSPARENT);
+        }
+
+        float ratio = Math.min((float) size / source.getWidth(), (float) size / source.getHeight());
+        int width = Math.round(source.getWidth() * ratio);
+        int height = Math.round(source.getHeight() * ratio);
+        int left = (size - width) / 2;
+        int top = (size - height) / 2;
+        sourceRect.set(0, 0, source.getWidth(), source.getHeight());
+        targetRect.set(left, top, left + width, top + height);
+        new Canvas(target).drawBitmap(source, sourceRect, targetRect, scalePaint);
+        return target;
+    }
+
+    // Put a cached icon on a view and remember that the view shows it
+    public static void show(ImageView view, int iconCode, int size, Bitmap bitmap) {
+        release(view);
+        long key = key(iconCode, size);
+        shownIn.put(view, key);
+        Integer count = shownCount.get(key);
+        shownCount.put(key, count == null ? 1 : count + 1);
+        view.setImageBitmap(bitmap);
+    }
+
+    // The view is about to show something that did not come from here
+    public static void release(ImageView view) {
+        Long key = shownIn.remove(view);
+        if (key == null) {
+            return;
+        }
+        Integer count = shownCount.get(key);
+        if (count == null || count <= 1) {
+            shownCount.remove(key);
+        } else {
+            shownCount.put(key, count - 1);
+        }
+    }
+
+    public static long getHitCount() {
+        return hitCount;
+    }
+
+    public static long getMissCount() {
+        return missCount;
+    }
+
+    public static long getEvictionCount() {
+        return evictionCount;
+    }
+
+    // Icons drawn at a new size, each one is a miss that was served without a network load
+    public static long getScaleCount() {
+        return scaleCount;
+    }
+
+    public static long getPoolReuseCount() {
+        return pool.reuseCount;
+    }
+
+    // Mutable square bitmaps kept for reuse, by size
+    private static class BitmapPool {
+        private final int budgetBytes;
+        private final ArrayList<Bitmap> bitmaps = new ArrayList<>();
+        private int bytes;
+        private long reuseCount;
+
+        BitmapPool(int budgetBytes) {
+            this.budgetBytes = budgetBytes;
+        }
+
+        Bitmap get(int size) {
+            for (int i = bitmaps.size() - 1; i >= 0; i--) {
+                Bitmap bitmap = bitmaps.get(i);
+                if (bitmap.getWidth() == size && bitmap.getHeight() == size) {
+                    bitmaps.remove(i);
+                    bytes -= bitmap.getAllocationByteCount();
+                    reuseCount++;
+                    return bitmap;
+                }
+            }
+            return null;
+        }
+
+        void put(Bitmap bitmap) {
+            // Only bitmaps drawn by scale() can be drawn over, decoded ones are immutable
+            if (!bitmap.isMutable() || bitmap.isRecycled()) {
+                return;
+            }
+            int size = bitmap.getAllocationByteCount();
+            if (bytes + size > budgetBytes) {
+                return;
+            }
+            bitmaps.add(bitmap);
+            bytes += size;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import android.graphics.Color;
 import android.graphics.drawable.ColorDrawable;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.util.Log;
@@ -20,9 +21,18 @@ import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import com.example.project.R;
-import com.squareup.picasso.Picasso;
-
+import com.example.project.core.District;
+import com.example.project.core.DistrictMapper;
+import com.example.project.core.DistrictReadings;
+import com.example.project.core.DistrictSnapshot;
+import com.example.project.core.HKOApiHelper;
+import com.example.project.core.HKOMetrics;
+
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -37,17 +47,29 @@ public class MainActivity extends AppCompatActivity {
     private ImageView weatherIconImageView;
 
     // Data
-    private ArrayList<HKOApiHelper.DistrictData> districtList;
-    private HKOApiHelper.DistrictData selectedDistrict;
+    private DistrictReadings districts; // null until the first rhrread arrives
+    private District selectedDistrict;
     private String generalWeatherCondition = "Loading...";
     private String hkoHumidity = "--%";
     private int currentWeatherIcon = 50;
     private String highLowTempString = "H:-- L:--"; // High and low temp
     private Dialog dialog;
 
+    // In-flight HKO request, cancelled in onDestroy
+    private HKOApiHelper.RequestHandle<HKOApiHelper.MainActivityCallback> weatherRequest;
+
+    // Polls rhrread and flw while the screen is visible
+    private RefreshScheduler refreshScheduler;
+    private boolean forecastPrefetched = false;
+
     // Time update
+    private static final long MINUTE_MS = 60000;
+    private static final String[] MONTH_NAMES = {"Jan", "Feb", "Mar", "Apr", "May", "Jun",
+            "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
     private Handler timeHandler;
     private Runnable timeUpdateRunnable;
+    private final java.util.Calendar timeCalendar = java.util.Calendar.getInstance();
+    private final StringBuilder timeText = new StringBuilder(24);
 
     // GPS
     private WeatherLocationManager locationManager;
@@ -59,11 +81,27 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
+        HKOAndroid.init(this);
         initViews();
         setupTimeUpdater();
         initLocationServices(); // Initialize GPS
         loadWeatherData(); // Initialize weather data
         setupClickListeners();
+
+        refreshScheduler = new RefreshScheduler(this, this::refreshWeatherData,
+                HKOApiHelper.DATA_TYPE_RHRREAD, HKOApiHelper.DATA_TYPE_FLW);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refreshScheduler.start();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        refreshScheduler.stop();
     }
 
     private void initViews() {
@@ -77,8 +115,6 @@ public class MainActivity extends AppCompatActivity {
         weatherIconImageView = findViewById(R.id.imageView);
         highLowTempTextView = findViewById(R.id.nowHighTempAndLowTemp);
 
-        districtList = new ArrayList<>();
-
         if (weatherConditionTextView != null) {
             weatherConditionTextView.setOnClickListener(v -> showFullWeatherDescription());
             weatherConditionTextView.setMaxLines(2);
@@ -100,16 +136,24 @@ public class MainActivity extends AppCompatActivity {
             @Override
             public void run() {
                 updateCurrentTime();
-                timeHandler.postDelayed(this, 60000);
+                scheduleNextMinute();
             }
         };
 
         updateCurrentTime();
-        timeHandler.postDelayed(timeUpdateRunnable, 60000);
+        scheduleNextMinute();
     }
 
+    // Wake up right after the minute turns, so the clock is never up to a minute behind
+    private void scheduleNextMinute() {
+        long now = System.currentTimeMillis();
+        timeHandler.postDelayed(timeUpdateRunnable, MINUTE_MS - now % MINUTE_MS);
+    }
+
+    // Runs every minute on the main thread, so it builds the text in place instead of String.format
     private void updateCurrentTime() {
-        java.util.Calendar now = java.util.Calendar.getInstance();
+        java.util.Calendar now = timeCalendar;
+        now.setTimeInMillis(System.currentTimeMillis());
 
         String dayOfWeek = getDayOfWeekShort(now.get(java.util.Calendar.DAY_OF_WEEK));
         int hour = now.get(java.util.Calendar.HOUR_OF_DAY);
@@ -121,11 +165,18 @@ public class MainActivity extends AppCompatActivity {
         if (hour > 12) hour -= 12;
         if (hour == 0) hour = 12;
 
-        String timeText = String.format("%s %s %d | %d:%02d%s",
-                dayOfWeek, getMonthName(month), day, hour, minute, ampm);
+        // "%s %s %d | %d:%02d%s"
+        StringBuilder text = timeText;
+        text.setLength(0);
+        text.append(dayOfWeek).append(' ').append(getMonthName(month)).append(' ').append(day)
+                .append(" | ").append(hour).append(':');
+        if (minute < 10) {
+            text.append('0');
+        }
+        text.append(minute).append(ampm);
 
         if (dateTimeTextView != null) {
-            dateTimeTextView.setText(timeText);
+            dateTimeTextView.setText(text.toString());
         }
     }
 
@@ -134,24 +185,45 @@ public class MainActivity extends AppCompatActivity {
             selectDistrictTextView.setText("》Loading...");
         }
 
-        HKOApiHelper.getMainActivityData(new HKOApiHelper.MainActivityCallback() {
+        refreshWeatherData(Collections.emptySet());
+    }
+
+    // Called by the refresh scheduler with the dataTypes that are due, the screen keeps showing
+    // the current data until the new data arrives
+    private void refreshWeatherData(Set<String> dataTypes) {
+        if (weatherRequest != null) {
+            weatherRequest.cancel();
+        }
+        weatherRequest = HKOApiHelper.refreshMainActivityData(dataTypes, new HKOApiHelper.MainActivityCallback() {
             @Override
-            public void onDataReceived(ArrayList<HKOApiHelper.DistrictData> districts, String generalWeather, String humidity, int weatherIcon, String highLowTemp) {
-                districtList.clear();
-                districtList.addAll(districts);
-
-                generalWeatherCondition = generalWeather;
-                hkoHumidity = humidity;
-                currentWeatherIcon = weatherIcon;
-                highLowTempString = highLowTemp;
-                weatherDataLoaded = true; // Mark weather data loaded
-
-                if (selectDistrictTextView != null) {
-                    selectDistrictTextView.setText("Select District");
+            public void onDataReceived(DistrictReadings readings, String generalWeather, String humidity, int weatherIcon, String highLowTemp) {
+                long renderStart = System.nanoTime();
+                if (!weatherDataLoaded) {
+                    districts = readings;
+                    generalWeatherCondition = generalWeather;
+                    hkoHumidity = humidity;
+                    currentWeatherIcon = weatherIcon;
+                    highLowTempString = highLowTemp;
+                    weatherDataLoaded = true; // Mark weather data loaded
+
+                    if (selectedDistrict != null) {
+                        updateSelectedDistrictDisplay();
+                    } else if (selectDistrictTextView != null) {
+                        selectDistrictTextView.setText("Select District");
+                    }
+
+                    updateGeneralInfo();
+                    updateWeatherIcon();
+                    prefetchForecastWhenIdle();
+                } else {
+                    applyWeatherChanges(readings, generalWeather, humidity, weatherIcon, highLowTemp);
                 }
+                HKOMetrics.record(HKOMetrics.Stage.RENDER, HKOApiHelper.DATA_TYPE_RHRREAD, renderStart);
 
-                updateGeneralInfo();
-                updateWeatherIcon();
+                // A warning may have started or ended, change the polling cadence
+                if (refreshScheduler != null) {
+                    refreshScheduler.reschedule();
+                }
 
 
                 // If it is the first time loading and GPS is ready, automatically start positioning
@@ -171,6 +243,30 @@ public class MainActivity extends AppCompatActivity {
                             Toast.LENGTH_LONG).show();
                 });
             }
+
+            @Override
+            public void onRefreshed(String[] succeeded, String[] failed) {
+                // Only what came from the network counts, a failure retries soon even with cached data on screen
+                if (refreshScheduler != null) {
+                    refreshScheduler.onRefreshSucceeded(succeeded);
+                    if (failed.length > 0) {
+                        refreshScheduler.onRefreshFailed(failed);
+                    }
+                }
+            }
+        });
+    }
+
+    // Once the first data is on screen and the main thread has nothing else to do,
+    // warm what SecondActivity shows so it opens from memory
+    private void prefetchForecastWhenIdle() {
+        if (forecastPrefetched) {
+            return;
+        }
+        forecastPrefetched = true;
+        Looper.myQueue().addIdleHandler(() -> {
+            SecondActivity.prefetch();
+            return false; // Run once
         });
     }
 
@@ -191,19 +287,55 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    // Diff a refresh against what is on screen and only touch the views whose data changed
+    // Most refreshes change nothing, then this is a few comparisons
+    private void applyWeatherChanges(DistrictReadings readings, String generalWeather, String humidity,
+                                     int weatherIcon, String highLowTemp) {
+        long changedDistricts = DistrictSnapshot.changedDistricts(districts, readings);
+        districts = readings;
+        if (selectedDistrict != null && (changedDistricts & (1L << selectedDistrict.ordinal())) != 0) {
+            updateSelectedDistrictReadings();
+        }
+
+        if (!generalWeather.equals(generalWeatherCondition)) {
+            generalWeatherCondition = generalWeather;
+            updateGeneralWeather();
+        }
+        if (!humidity.equals(hkoHumidity)) {
+            hkoHumidity = humidity;
+            updateHumidity();
+        }
+        if (!highLowTemp.equals(highLowTempString)) {
+            highLowTempString = highLowTemp;
+            updateHighLowTemp();
+        }
+        if (weatherIcon != currentWeatherIcon) {
+            currentWeatherIcon = weatherIcon;
+            updateWeatherIcon();
+        }
+    }
+
     private void updateGeneralInfo() {
+        updateGeneralWeather();
+        updateHumidity();
+        updateHighLowTemp();
+    }
+
+    private void updateGeneralWeather() {
         if (weatherConditionTextView != null) {
             weatherConditionTextView.setText(generalWeatherCondition);
             weatherConditionTextView.setMaxLines(2);
             weatherConditionTextView.setEllipsize(android.text.TextUtils.TruncateAt.END);
         }
+    }
 
-        // Update humidity
+    private void updateHumidity() {
         if (humidityTextView != null) {
             humidityTextView.setText(hkoHumidity);
         }
+    }
 
-        // Update high and low temperatures
+    private void updateHighLowTemp() {
         if (highLowTempTextView != null) {
             highLowTempTextView.setText(highLowTempString);
         }
@@ -212,34 +344,32 @@ public class MainActivity extends AppCompatActivity {
     private void updateWeatherIcon() {
         if (weatherIconImageView == null) return;
 
-        String iconUrl = HKOApiHelper.getHKOOfficialIconUrl(currentWeatherIcon);
-
-        Picasso.get()
-                .load(iconUrl)
-                .resize(150, 150)
-                .centerInside()
-                .into(weatherIconImageView);
+        WeatherIcons.bind(weatherIconImageView, currentWeatherIcon, 150);
     }
 
     private void updateSelectedDistrictDisplay() {
-        if (selectedDistrict == null) return;
+        if (selectedDistrict == null || districts == null) return;
 
         runOnUiThread(() -> {
             if (selectDistrictTextView != null) {
-                selectDistrictTextView.setText(selectedDistrict.districtName);
+                selectDistrictTextView.setText(selectedDistrict.getDisplayName());
             }
             if (locationTextView != null) {
-                locationTextView.setText(selectedDistrict.districtName);
-            }
-            if (temperatureTextView != null) {
-                temperatureTextView.setText(selectedDistrict.getFormattedTemperature());
-            }
-            if (rainfallTextView != null) {
-                rainfallTextView.setText(selectedDistrict.getFormattedRainfall());
+                locationTextView.setText(selectedDistrict.getDisplayName());
             }
+            updateSelectedDistrictReadings();
         });
     }
 
+    private void updateSelectedDistrictReadings() {
+        if (temperatureTextView != null) {
+            temperatureTextView.setText(districts.getFormattedTemperature(selectedDistrict));
+        }
+        if (rainfallTextView != null) {
+            rainfallTextView.setText(districts.getFormattedRainfall(selectedDistrict));
+        }
+    }
+
     private void setupClickListeners() {
         // Select district
         if (selectDistrictTextView != null) {
@@ -286,9 +416,12 @@ public class MainActivity extends AppCompatActivity {
         EditText editText = dialog.findViewById(R.id.editTxt);
         ListView listView = dialog.findViewById(R.id.listView);
 
-        ArrayList<String> displayList = new ArrayList<>();
-        for (HKOApiHelper.DistrictData district : districtList) {
-            displayList.add(district.getDisplayName());
+        // Districts can only be picked once there are readings to show
+        ArrayList<String> displayList = new ArrayList<>(District.COUNT);
+        if (districts != null) {
+            for (District district : District.values()) {
+                displayList.add(district.getDisplayName());
+            }
         }
 
         ArrayAdapter<String> adapter = new ArrayAdapter<>(MainActivity.this,
@@ -317,12 +450,10 @@ public class MainActivity extends AppCompatActivity {
             listView.setOnItemClickListener((parent, view, position, id) -> {
                 String selectedText = adapter.getItem(position);
 
-                for (HKOApiHelper.DistrictData district : districtList) {
-                    if (selectedText != null && selectedText.startsWith(district.getDisplayName())) {
-                        selectedDistrict = district;
-                        updateSelectedDistrictDisplay();
-                        break;
-                    }
+                District district = District.fromName(selectedText);
+                if (district != null) {
+                    selectedDistrict = district;
+                    updateSelectedDistrictDisplay();
                 }
                 dialog.dismiss();
             });
@@ -363,22 +494,24 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private String generateFunText() {
-        if (selectedDistrict == null) {
+        if (selectedDistrict == null || districts == null) {
             return "今日天氣唔錯，記得出街！ 😊";
         }
 
-        String districtName = selectedDistrict.districtName;
+        String districtName = selectedDistrict.getDisplayName();
+        boolean hasRainfall = districts.hasRainfall(selectedDistrict);
+        double rainfall = districts.getRainfall(selectedDistrict);
 
-        if (selectedDistrict.hasRainfall && selectedDistrict.rainfallMax > 5.0) {
+        if (hasRainfall && rainfall > 5.0) {
             return String.format("%s過去有%.1fmm雨！出街記得帶遮啊！ ☔",
-                    districtName, selectedDistrict.rainfallMax);
-        } else if (selectedDistrict.hasRainfall && selectedDistrict.rainfallMax > 0.1) {
+                    districtName, rainfall);
+        } else if (hasRainfall && rainfall > 0.1) {
             return String.format("%s有少少雨(%.1fmm)，小心啲！ 🌦️",
-                    districtName, selectedDistrict.rainfallMax);
+                    districtName, rainfall);
         }
 
-        if (selectedDistrict.hasTemperature) {
-            double temp = selectedDistrict.temperature;
+        if (districts.hasTemperature(selectedDistrict)) {
+            double temp = districts.getTemperature(selectedDistrict);
             if (temp > 30) {
                 return String.format("%s今日好熱呀！%.0f度，記得多飲水！🌞💦", districtName, temp);
             } else if (temp < 15) {
@@ -405,15 +538,17 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private String getMonthName(int month) {
-        String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun",
-                "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-        return months[month - 1];
+        return MONTH_NAMES[month - 1];
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
 
+        if (weatherRequest != null) {
+            weatherRequest.cancel();
+        }
+
         if (timeHandler != null && timeUpdateRunnable != null) {
             timeHandler.removeCallbacks(timeUpdateRunnable);
         }
@@ -423,6 +558,13 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    // adb shell dumpsys activity top [--hko-json]
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+        HKOAndroid.dumpMetrics(writer, args);
+    }
+
     @Override
     public void onRequestPermissionsResult(int requestCode, String[] permissions, int[] grantResults) {
         super.onRequestPermissionsResult(requestCode, permissions, grantResults);
@@ -469,7 +611,7 @@ public class MainActivity extends AppCompatActivity {
 
     private void handleLocationResult(double latitude, double longitude) {
         DistrictMapper.DistrictLocation nearestDistrict =
-                DistrictMapper.findNearestDistrict(latitude, longitude);
+                DistrictMapper.findDistrict(latitude, longitude);
 
         if (nearestDistrict != null) {
             selectDistrictByName(nearestDistrict.districtName);
@@ -489,12 +631,10 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void selectDistrictByName(String districtName) {
-        for (HKOApiHelper.DistrictData district : districtList) {
-            if (district.districtName.equals(districtName)) {
-                selectedDistrict = district;
-                updateSelectedDistrictDisplay();
-                break;
-            }
+        District district = District.fromName(districtName);
+        if (district != null && districts != null) {
+            selectedDistrict = district;
+            updateSelectedDistrictDisplay();
         }
     }
 }
\ No newline at end of file
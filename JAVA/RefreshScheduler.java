@@ -0,0 +1,158 @@
+package com.example.project.Activitis;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.os.BatteryManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.util.Log;
+
+import com.example.project.core.HKOApiHelper;
+import com.example.project.core.RefreshPolicy;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Polls HKO while a screen is visible, start() in onResume and stop() in onPause
+// RefreshPolicy picks the cadence, this class reads the device state and wakes up on the main thread
+public class RefreshScheduler {
+
+    private static final String TAG = "RefreshScheduler";
+    private static final int LOW_BATTERY_PERCENT = 20;
+    private static final long OFFLINE_RETRY_MS = 60 * 1000L;
+
+    public interface Listener {
+        // Called on the main thread with every dataType due in this wakeup
+        void onRefreshDue(Set<String> dataTypes);
+    }
+
+    private final Context context;
+    private final RefreshPolicy policy;
+    private final Listener listener;
+    private final String[] dataTypes;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable wakeup = this::onWakeup;
+    private boolean running;
+    private boolean online = true;
+
+    public RefreshScheduler(Context context, Listener listener, String... dataTypes) {
+        this(context, new RefreshPolicy(RefreshPolicy.SYSTEM_CLOCK), listener, dataTypes);
+    }
+
+    public RefreshScheduler(Context context, RefreshPolicy policy, Listener listener, String... dataTypes) {
+        this.context = context.getApplicationContext();
+        this.policy = policy;
+        this.listener = listener;
+        this.dataTypes = dataTypes;
+    }
+
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (String dataType : dataTypes) {
+            policy.track(dataType);
+        }
+        scheduleNext();
+    }
+
+    public void stop() {
+        running = false;
+        handler.removeCallbacks(wakeup);
+    }
+
+    // The refresh of these dataTypes failed, try them again shortly rather than a full interval later
+    public void onRefreshFailed(String... failed) {
+        for (String dataType : failed) {
+            policy.markFailed(dataType);
+        }
+        reschedule();
+    }
+
+    public void onRefreshSucceeded(String... succeeded) {
+        for (String dataType : succeeded) {
+            policy.markSucceeded(dataType);
+        }
+    }
+
+    // Conditions changed (e.g. a warning was just issued), work out the next wakeup again
+    public void reschedule() {
+        if (running) {
+            scheduleNext();
+        }
+    }
+
+    private void onWakeup() {
+        if (!running) {
+            return;
+        }
+
+        updateConditions();
+        if (!online) {
+            // Nothing is marked as checked, it all goes out together once the network is back
+            handler.postDelayed(wakeup, OFFLINE_RETRY_MS);
+            return;
+        }
+
+        List<String> due = policy.takeDue();
+        if (!due.isEmpty()) {
+            Log.d(TAG, "Refreshing " + due);
+            listener.onRefreshDue(new HashSet<>(due));
+        }
+        scheduleNext();
+    }
+
+    private void scheduleNext() {
+        handler.removeCallbacks(wakeup);
+        updateConditions();
+        long delay = policy.getDelayUntilNextDue();
+        if (delay >= 0) {
+            handler.postDelayed(wakeup, delay);
+        }
+    }
+
+    private void updateConditions() {
+        boolean metered = false;
+        online = true;
+        ConnectivityManager connectivity = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivity != null) {
+            try {
+                NetworkInfo network = connectivity.getActiveNetworkInfo();
+                online = network != null && network.isConnected();
+                metered = connectivity.isActiveNetworkMetered();
+            } catch (SecurityException e) {
+                // No ACCESS_NETWORK_STATE, treat the network as online and unmetered
+            }
+        }
+
+        policy.setConditions(HKOApiHelper.isSevereWeather(), metered, isLowBattery());
+    }
+
+    private boolean isLowBattery() {
+        PowerManager power = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        if (power != null && power.isPowerSaveMode()) {
+            return true;
+        }
+
+        // Sticky broadcast, registering with a null receiver only reads the last value
+        Intent battery = context.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if (battery == null) {
+            return false;
+        }
+
+        int status = battery.getIntExtra(BatteryManager.EXTRA_STATUS, -1);
+        if (status == BatteryManager.BATTERY_STATUS_CHARGING || status == BatteryManager.BATTERY_STATUS_FULL) {
+            return false;
+        }
+
+        int level = battery.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+        int scale = battery.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+        return level >= 0 && scale > 0 && level * 100 / scale < LOW_BATTERY_PERCENT;
+    }
+}
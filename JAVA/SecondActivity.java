@@ -5,17 +5,20 @@ import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.ImageView;
-import android.widget.ListView;
 import android.widget.TextView;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.constraintlayout.widget.ConstraintLayout;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.project.Activitis.SecondDomain;
-import com.example.project.Activitis.HKOApiHelper;
 import com.example.project.R;
-import com.squareup.picasso.Picasso;
+import com.example.project.core.HKOApiHelper;
+import com.example.project.core.HKOMetrics;
 
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -23,19 +26,27 @@ import java.util.Locale;
 
 public class SecondActivity extends AppCompatActivity {
     private static final String TAG = "SecondActivity";
+
+    // Tomorrow's icon size in pixels, prefetch warms the cache at the same size
+    private static final int TOMORROW_ICON_SIZE = 80;
     private TextView tmrTempTextView, tmrWeatherTextView, tmrRainfallPercentTextView, tmrWindSpeedTextView, tmrHumidityTextView;
     private ImageView tmrWeatherIcon;
-    private ListView next7DayForecastList;
+    private RecyclerView next7DayForecastList;
     private SecondAdapter adapter;
 
     // Storing weather profiles
     private String generalWeatherCondition = "";
 
+    // In-flight HKO requests, cancelled in onDestroy
+    private HKOApiHelper.RequestHandle<HKOApiHelper.SevenDayCallback> forecastRequest;
+    private HKOApiHelper.RequestHandle<HKOApiHelper.GeneralSituationCallback> situationRequest;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_second);
 
+        HKOAndroid.init(this);
         initViews();
         loadWeatherData();
         setupBackButton();
@@ -50,6 +61,13 @@ public class SecondActivity extends AppCompatActivity {
         tmrWeatherIcon = findViewById(R.id.tmrWeatherIcon);
         next7DayForecastList = findViewById(R.id.next7DayForecastList);
 
+        // One adapter for the life of the screen, each delivery is diffed into it by date
+        adapter = new SecondAdapter();
+        next7DayForecastList.setLayoutManager(new LinearLayoutManager(this));
+        // Fixed 411dp in the layout, a row change never resizes the list
+        next7DayForecastList.setHasFixedSize(true);
+        next7DayForecastList.setAdapter(adapter);
+
         // tmrWeatherTextView , Now only tomorrow weather is displayed, no click event is required
         // If want to display the generalSituation, click on the entire Tomorrow card.
         if (tmrWeatherTextView != null) {
@@ -76,9 +94,10 @@ public class SecondActivity extends AppCompatActivity {
         loadGeneralWeatherSituation();
 
         // Then load the seven-day forecast
-        HKOApiHelper.getSevenDayForecast(new HKOApiHelper.SevenDayCallback() {
+        forecastRequest = HKOApiHelper.getSevenDayForecast(new HKOApiHelper.SevenDayCallback() {
             @Override
             public void onSevenDayDataReceived(ArrayList<HKOApiHelper.SevenDayForecast> forecasts) {
+                long renderStart = System.nanoTime();
 
                 // Index 0 for tmr
                 if (forecasts.size() > 0) {
@@ -87,7 +106,9 @@ public class SecondActivity extends AppCompatActivity {
 
                 // Seven-day list (starting from index 1 - starting from the day after tomorrow)
                 if (forecasts.size() > 1) {
-                    runOnUiThread(() -> updateSevenDayList(forecasts, 1));
+                    runOnUiThread(() -> updateSevenDayList(forecasts, 1, renderStart));
+                } else {
+                    HKOMetrics.record(HKOMetrics.Stage.RENDER, HKOApiHelper.DATA_TYPE_FND, renderStart);
                 }
             }
 
@@ -100,7 +121,7 @@ public class SecondActivity extends AppCompatActivity {
 
     // Load weather overview (Use HKOApiHelper for unified management)
     private void loadGeneralWeatherSituation() {
-        HKOApiHelper.getGeneralSituation(new HKOApiHelper.GeneralSituationCallback() {
+        situationRequest = HKOApiHelper.getGeneralSituation(new HKOApiHelper.GeneralSituationCallback() {
             @Override
             public void onGeneralSituationReceived(String generalSituation) {
                 generalWeatherCondition = generalSituation;
@@ -113,6 +134,46 @@ public class SecondActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+
+        if (forecastRequest != null) {
+            forecastRequest.cancel();
+        }
+        if (situationRequest != null) {
+            situationRequest.cancel();
+        }
+    }
+
+    // adb shell dumpsys activity top [--hko-json]
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+        HKOAndroid.dumpMetrics(writer, args);
+    }
+
+    // Warm the fnd forecast and its icons into memory before the user opens this screen
+    // IconCache is keyed by code and size, so the icons are warmed at the sizes they are shown at
+    // Holds no Activity, safe to let it finish after the caller is gone
+    public static void prefetch() {
+        HKOApiHelper.getSevenDayForecast(new HKOApiHelper.SevenDayCallback() {
+            @Override
+            public void onSevenDayDataReceived(ArrayList<HKOApiHelper.SevenDayForecast> forecasts) {
+                for (int i = 0; i < forecasts.size(); i++) {
+                    int size = i == 0 ? TOMORROW_ICON_SIZE : SecondAdapter.ICON_SIZE;
+                    WeatherIcons.warm(forecasts.get(i).iconCode, size);
+                }
+                Log.d(TAG, "Prefetched " + forecasts.size() + " forecast days");
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "Forecast prefetch failed: " + error);
+            }
+        });
+    }
+
     private void setupBackButton() {
         ConstraintLayout backBtn = findViewById(R.id.backBtn);
         if (backBtn != null) {
@@ -124,8 +185,7 @@ public class SecondActivity extends AppCompatActivity {
         runOnUiThread(() -> {
             // Display temperature range (min.-max.)
             if (tmrTempTextView != null) {
-                String tempRange = forecast.minTemp + "-" + forecast.maxTemp + "°";
-                tmrTempTextView.setText(tempRange);
+                tmrTempTextView.setText(forecast.tempRangeText);
                 tmrTempTextView.setVisibility(View.VISIBLE);
             }
 
@@ -142,91 +202,48 @@ public class SecondActivity extends AppCompatActivity {
             }
 
             if (tmrWindSpeedTextView != null) {
-                // Remove the last . of wind speed information
-                String windInfo = forecast.windInfo;
-                if (windInfo != null && windInfo.endsWith(".")) {
-                    windInfo = windInfo.substring(0, windInfo.length() - 1);
-                }
-                tmrWindSpeedTextView.setText(windInfo);
+                tmrWindSpeedTextView.setText(forecast.windText);
                 tmrWindSpeedTextView.setVisibility(View.VISIBLE);
             }
 
             // Display humidity range (minimum - maximum)
             if (tmrHumidityTextView != null) {
-                String humidityRange = forecast.minHumidity + "-" + forecast.maxHumidity + "%";
-                tmrHumidityTextView.setText(humidityRange);
+                tmrHumidityTextView.setText(forecast.humidityText);
                 tmrHumidityTextView.setVisibility(View.VISIBLE);
             }
 
             // Update tomorrow weather icon
             if (tmrWeatherIcon != null) {
-                String iconUrl = HKOApiHelper.getHKOOfficialIconUrl(forecast.iconCode);
-                Picasso.get()
-                        .load(iconUrl)
-                        .resize(80, 80)
-                        .centerInside()
-                        .into(tmrWeatherIcon);
+                WeatherIcons.bind(tmrWeatherIcon, forecast.iconCode, TOMORROW_ICON_SIZE);
 
                 tmrWeatherIcon.setVisibility(View.VISIBLE);
             }
         });
     }
 
-    private void updateSevenDayList(ArrayList<HKOApiHelper.SevenDayForecast> forecasts, int startIndex) {
+    // RENDER ends once the list diff has been applied, ListAdapter diffs off the main thread
+    private void updateSevenDayList(ArrayList<HKOApiHelper.SevenDayForecast> forecasts, int startIndex,
+                                    long renderStart) {
         ArrayList<SecondDomain> items = new ArrayList<>();
 
         // Starting from startIndex, display up to 7 items
         int maxItems = Math.min(7, forecasts.size() - startIndex);
 
+        // The row text was rendered on the parse thread
         for (int i = startIndex; i < startIndex + maxItems && i < forecasts.size(); i++) {
-            HKOApiHelper.SevenDayForecast forecast = forecasts.get(i);
-
-            // Convert the date format returned by the API
-            String dayName = convertDateToDisplay(forecast.date);
-            String iconUrl = HKOApiHelper.getHKOOfficialIconUrl(forecast.iconCode);
-
-            items.add(new SecondDomain(dayName, forecast.minTemp, iconUrl, forecast.weather, forecast.maxTemp));
+            items.add(SecondDomain.from(forecasts.get(i)));
         }
 
         runOnUiThread(() -> {
             if (items.size() > 0) {
-                adapter = new SecondAdapter(this, items);
-                next7DayForecastList.setAdapter(adapter);
+                adapter.submitList(items, () ->
+                        HKOMetrics.record(HKOMetrics.Stage.RENDER, HKOApiHelper.DATA_TYPE_FND, renderStart));
             } else {
                 loadDefaultData();
             }
         });
     }
 
-    //Convert data format
-    private String convertDateToDisplay(String dateStr) {
-        if (dateStr == null || dateStr.isEmpty()) {
-            return "N/A";
-        }
-
-
-        try {
-            if (dateStr.length() == 8) {
-                String year = dateStr.substring(0, 4);
-                String month = dateStr.substring(4, 6);
-                String day = dateStr.substring(6, 8);
-
-                // Remove zeros and format as "dd/M"
-                int dayInt = Integer.parseInt(day);
-                int monthInt = Integer.parseInt(month);
-
-                String result = dayInt + "/" + monthInt;
-                return result;
-            } else {
-                return "N/A";
-            }
-        } catch (Exception e) {
-            return "N/A";
-        }
-    }
-
-
-
     private void loadDefaultData() {
         runOnUiThread(() -> {
             if (tmrTempTextView != null) {
@@ -254,8 +271,8 @@ public class SecondActivity extends AppCompatActivity {
                 tmrHumidityTextView.setVisibility(View.VISIBLE);
             }
 
-            if (next7DayForecastList != null) {
-                next7DayForecastList.setAdapter(null);
+            if (adapter != null) {
+                adapter.submitList(null);
             }
         });
     }
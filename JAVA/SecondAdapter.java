@@ -1,92 +1,143 @@
 package com.example.project.Activitis;
 
-import android.content.Context;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.BaseAdapter;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
 import com.example.project.R;
-import com.squareup.picasso.Picasso;
 
-import java.util.ArrayList;
+import java.util.List;
+
+// Rows of the 7-day forecast, keyed by forecast date. submitList() diffs against the current list
+// on a background thread and only rebinds the rows, and the fields in them, that changed
+public class SecondAdapter extends ListAdapter<SecondDomain, SecondAdapter.ViewHolder> {
+    // Icon size in pixels, SecondActivity.prefetch warms the cache at the same size
+    public static final int ICON_SIZE = 100;
+
+    // Payload bits, which fields of a row changed
+    private static final int CHANGED_DAY = 1;
+    private static final int CHANGED_STATUS = 1 << 1;
+    private static final int CHANGED_TEMPS = 1 << 2;
+    private static final int CHANGED_ICON = 1 << 3;
+
+    private static final DiffUtil.ItemCallback<SecondDomain> DIFF_CALLBACK = new DiffUtil.ItemCallback<SecondDomain>() {
+        @Override
+        public boolean areItemsTheSame(SecondDomain oldItem, SecondDomain newItem) {
+            return equal(oldItem.getDate(), newItem.getDate());
+        }
+
+        @Override
+        public boolean areContentsTheSame(SecondDomain oldItem, SecondDomain newItem) {
+            return changedFields(oldItem, newItem) == 0;
+        }
 
-public class SecondAdapter extends BaseAdapter {
-    private static final String TAG = "SecondAdapter";
-    private ArrayList<SecondDomain> items;
-    private Context context;
-    private LayoutInflater inflater;
+        @Override
+        public Object getChangePayload(SecondDomain oldItem, SecondDomain newItem) {
+            return changedFields(oldItem, newItem);
+        }
+    };
 
-    public SecondAdapter(Context context, ArrayList<SecondDomain> items) {
-        this.context = context;
-        this.items = items;
-        this.inflater = LayoutInflater.from(context);
+    public SecondAdapter() {
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
     }
 
     @Override
-    public int getCount() {
-        return items.size();
+    public long getItemId(int position) {
+        // yyyyMMdd is a number already
+        String date = getItem(position).getDate();
+        try {
+            return Long.parseLong(date);
+        } catch (NumberFormatException e) {
+            return date == null ? RecyclerView.NO_ID : date.hashCode();
+        }
     }
 
     @Override
-    public Object getItem(int position) {
-        return items.get(position);
+    public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.list_item, parent, false);
+        return new ViewHolder(view);
     }
 
     @Override
-    public long getItemId(int position) {
-        return position;
+    public void onBindViewHolder(ViewHolder holder, int position) {
+        bind(holder, getItem(position), CHANGED_DAY | CHANGED_STATUS | CHANGED_TEMPS | CHANGED_ICON);
     }
 
     @Override
-    public View getView(int position, View convertView, ViewGroup parent) {
-        ViewHolder holder;
-
-        if (convertView == null) {
-            convertView = inflater.inflate(R.layout.list_item, parent, false);
-            holder = new ViewHolder();
-
-            holder.dayTxt = convertView.findViewById(R.id.dayTxt);
-            holder.statusTxt = convertView.findViewById(R.id.statusTxt);
-            holder.lowTxt = convertView.findViewById(R.id.lowTxt);
-            holder.highTxt = convertView.findViewById(R.id.highTxt);
-            holder.pic2 = convertView.findViewById(R.id.pic2);
-
-            convertView.setTag(holder);
-        } else {
-            holder = (ViewHolder) convertView.getTag();
+    public void onBindViewHolder(ViewHolder holder, int position, List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
         }
 
-        SecondDomain item = items.get(position);
+        // Several diffs may have landed before this row was rebound
+        int changed = 0;
+        for (Object payload : payloads) {
+            changed |= (Integer) payload;
+        }
+        bind(holder, getItem(position), changed);
+    }
 
-        // Set the day of the week
-        holder.dayTxt.setText(item.getDay());
+    private void bind(ViewHolder holder, SecondDomain item, int changed) {
+        if ((changed & CHANGED_DAY) != 0) {
+            holder.dayTxt.setText(item.getDay());
+        }
 
-        // Set full weather description (not shortened)
-        holder.statusTxt.setText(item.getStatus());
+        // Full weather description (not shortened)
+        if ((changed & CHANGED_STATUS) != 0) {
+            holder.statusTxt.setText(item.getStatus());
+        }
 
-        // Set the temperature (without the degree symbol, as the XML already has that)
-        holder.highTxt.setText(String.valueOf(item.getHighTemp()));
-        holder.lowTxt.setText(String.valueOf(item.getLowTemp()));
+        if ((changed & CHANGED_TEMPS) != 0) {
+            holder.highTxt.setText(item.getHighText());
+            holder.lowTxt.setText(item.getLowText());
+        }
 
-        // Use Picasso to load the official Observatory icon
-        String iconUrl = item.getPicPath(); // Now this is the URL
-        Log.d(TAG, "Loading HKO icon: " + iconUrl + " for day " + item.getDay());
+        // Official Observatory icon, from the bundled atlas or the network
+        if ((changed & CHANGED_ICON) != 0) {
+            WeatherIcons.bind(holder.pic2, item.getIconCode(), ICON_SIZE);
+        }
+    }
 
-        Picasso.get()
-                .load(iconUrl)
-                .resize(100, 100)                      // Resize Icons
-                .centerInside()                        // Keep Proportion
-                .into(holder.pic2);
+    private static int changedFields(SecondDomain oldItem, SecondDomain newItem) {
+        int changed = 0;
+        if (!equal(oldItem.getDay(), newItem.getDay())) {
+            changed |= CHANGED_DAY;
+        }
+        if (!equal(oldItem.getStatus(), newItem.getStatus())) {
+            changed |= CHANGED_STATUS;
+        }
+        if (!equal(oldItem.getHighText(), newItem.getHighText()) || !equal(oldItem.getLowText(), newItem.getLowText())) {
+            changed |= CHANGED_TEMPS;
+        }
+        if (oldItem.getIconCode() != newItem.getIconCode()) {
+            changed |= CHANGED_ICON;
+        }
+        return changed;
+    }
 
-        return convertView;
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
     }
 
-    static class ViewHolder {
-        TextView dayTxt, statusTxt, lowTxt, highTxt;
-        ImageView pic2;
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final TextView dayTxt, statusTxt, lowTxt, highTxt;
+        final ImageView pic2;
+
+        ViewHolder(View itemView) {
+            super(itemView);
+            dayTxt = itemView.findViewById(R.id.dayTxt);
+            statusTxt = itemView.findViewById(R.id.statusTxt);
+            lowTxt = itemView.findViewById(R.id.lowTxt);
+            highTxt = itemView.findViewById(R.id.highTxt);
+            pic2 = itemView.findViewById(R.id.pic2);
+        }
     }
-}
\ No newline at end of file
+}
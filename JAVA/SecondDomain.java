@@ -1,57 +1,53 @@
 package com.example.project.Activitis;
 
-public class SecondDomain {
-    private String day;
-    private String picPath;
-    private String status;
-    private int highTemp;
-    private int lowTemp;
+import com.example.project.core.HKOApiHelper;
 
-    public SecondDomain(String day, int lowTemp, String picPath, String status, int highTemp) {
+// One row of the 7-day list, its text was rendered on the parse thread (SevenDayForecast.render)
+// Immutable, SecondAdapter only assigns the strings to its views
+public class SecondDomain {
+    // HKO forecastDate (yyyyMMdd), identifies the row across refreshes
+    private final String date;
+    private final String day;
+    private final int iconCode;
+    private final String status;
+    private final String highText;
+    private final String lowText;
+
+    public SecondDomain(String date, String day, String lowText, int iconCode, String status, String highText) {
+        this.date = date;
         this.day = day;
-        this.lowTemp = lowTemp;
-        this.picPath = picPath;
+        this.lowText = lowText;
+        this.iconCode = iconCode;
         this.status = status;
-        this.highTemp = highTemp;
+        this.highText = highText;
     }
 
-    public String getDay() {
-        return day;
+    static SecondDomain from(HKOApiHelper.SevenDayForecast forecast) {
+        return new SecondDomain(forecast.date, forecast.dateText, forecast.minTempText,
+                forecast.iconCode, forecast.weather, forecast.maxTempText);
     }
 
-    public void setDay(String day) {
-        this.day = day;
+    public String getDate() {
+        return date;
     }
 
-    public String getPicPath() {
-        return picPath;
+    public String getDay() {
+        return day;
     }
 
-    public void setPicPath(String picPath) {
-        this.picPath = picPath;
+    public int getIconCode() {
+        return iconCode;
     }
 
     public String getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
-        this.status = status;
-    }
-
-    public int getHighTemp() {
-        return highTemp;
-    }
-
-    public void setHighTemp(int highTemp) {
-        this.highTemp = highTemp;
-    }
-
-    public int getLowTemp() {
-        return lowTemp;
+    public String getHighText() {
+        return highText;
     }
 
-    public void setLowTemp(int lowTemp) {
-        this.lowTemp = lowTemp;
+    public String getLowText() {
+        return lowText;
     }
-}
\ No newline at end of file
+}
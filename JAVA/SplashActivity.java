@@ -7,23 +7,40 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 import com.example.project.R;
+import com.example.project.core.DistrictReadings;
+import com.example.project.core.HKOApiHelper;
 import pl.droidsonroids.gif.GifImageView;
 
+import java.util.ArrayList;
+
 public class SplashActivity extends AppCompatActivity {
 
-    private static final int SPLASH_DURATION = 3000; // 3 seconds
+    // Hand off to MainActivity after this even if no data has arrived, it shows its own loading state
+    private static final int MAX_WAIT_MS = 3000;
+
+    // Progress steps, the cache read is started straight away
+    private static final int PROGRESS_STARTED = 10;
+    private static final int PROGRESS_PER_REQUEST = 45;
+
     private ProgressBar progressBar;
     private TextView loadingText;
     private GifImageView gifImageView;
     private Handler handler;
 
+    // Prefetch of rhrread/flw and fnd, detached (not cancelled) on hand-off so the results still reach the cache
+    private HKOApiHelper.RequestHandle<HKOApiHelper.MainActivityCallback> mainRequest;
+    private HKOApiHelper.RequestHandle<HKOApiHelper.SevenDayCallback> forecastRequest;
+    private int progress;
+    private boolean navigated;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_splash);
 
+        HKOAndroid.init(this);
         initViews();
-        startProgressAnimation();
+        startPrefetch();
     }
 
     private void initViews() {
@@ -34,45 +51,61 @@ public class SplashActivity extends AppCompatActivity {
 
     }
 
-    private void startProgressAnimation() {
-        final int[] progress = {0};
-        final String[] loadingTexts = {
-                "Loading weather data...",
-                "Connecting to HK Observatory...",
-                "Getting GPS position...",
-                "Almost Almost Almost..."
-        };
+    // Read the disk cache and start the network requests now, MainActivity picks the results up
+    // from the memory cache or attaches to the requests still in flight
+    private void startPrefetch() {
+        setProgress(PROGRESS_STARTED, "Loading weather data...");
+        handler.postDelayed(this::navigateToMainActivity, MAX_WAIT_MS);
+
+        mainRequest = HKOApiHelper.getMainActivityData(new HKOApiHelper.MainActivityCallback() {
+            @Override
+            public void onDataReceived(DistrictReadings districts, String generalWeather, String hkoHumidity, int weatherIcon, String highLowTemp) {
+                // Cached or fresh, either is enough to draw MainActivity
+                setProgress(progress + PROGRESS_PER_REQUEST, "Almost Almost Almost...");
+                navigateToMainActivity();
+            }
+
+            @Override
+            public void onError(String error) {
+                // MainActivity reports the error and retries
+                navigateToMainActivity();
+            }
+
+            @Override
+            public void onRefreshed(String[] succeeded, String[] failed) {
+                // MainActivity's scheduler keeps its own account
+            }
+        });
+
+        forecastRequest = HKOApiHelper.getSevenDayForecast(new HKOApiHelper.SevenDayCallback() {
+            @Override
+            public void onSevenDayDataReceived(ArrayList<HKOApiHelper.SevenDayForecast> forecasts) {
+                setProgress(progress + PROGRESS_PER_REQUEST, null);
+            }
 
-        Runnable progressRunnable = new Runnable() {
             @Override
-            public void run() {
-                if (progress[0] <= 100) {
-                    progressBar.setProgress(progress[0]);
-
-                    // Update loading text
-                    if (progress[0] < 25) {
-                        loadingText.setText(loadingTexts[0]);
-                    } else if (progress[0] < 50) {
-                        loadingText.setText(loadingTexts[1]);
-                    } else if (progress[0] < 75) {
-                        loadingText.setText(loadingTexts[2]);
-                    } else {
-                        loadingText.setText(loadingTexts[3]);
-                    }
-
-                    progress[0] += 2;
-                    handler.postDelayed(this, 60); // Update every 60ms
-                } else {
-                    // Progress completed, jump to the main activity
-                    navigateToMainActivity();
-                }
+            public void onError(String error) {
+                // Only SecondActivity needs it, it fetches again
             }
-        };
+        });
+    }
 
-        handler.post(progressRunnable);
+    private void setProgress(int value, String text) {
+        progress = Math.min(100, value);
+        progressBar.setProgress(progress);
+        if (text != null) {
+            loadingText.setText(text);
+        }
     }
 
     private void navigateToMainActivity() {
+        if (navigated) {
+            return;
+        }
+        navigated = true;
+        handler.removeCallbacksAndMessages(null);
+        detachRequests();
+
         Intent intent = new Intent(SplashActivity.this, MainActivity.class);
         startActivity(intent);
         finish(); // Finish SplashActivity
@@ -81,12 +114,22 @@ public class SplashActivity extends AppCompatActivity {
         overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
     }
 
+    private void detachRequests() {
+        if (mainRequest != null) {
+            mainRequest.detach();
+        }
+        if (forecastRequest != null) {
+            forecastRequest.detach();
+        }
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
         if (handler != null) {
             handler.removeCallbacksAndMessages(null);
         }
+        detachRequests();
 
         // GifImageView doesn't need manual cleanup, system handles it automatically
     }
@@ -96,4 +139,4 @@ public class SplashActivity extends AppCompatActivity {
         // Prevent back key press on splash screen
         // Not called super.onBackPressed()
     }
-}
\ No newline at end of file
+}
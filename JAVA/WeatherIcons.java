@@ -0,0 +1,198 @@
+package com.example.project.Activitis;
+
+import android.content.res.AssetManager;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.drawable.Drawable;
+import android.util.Log;
+import android.widget.ImageView;
+
+import com.example.project.core.HKOApiHelper;
+import com.example.project.core.HKOMetrics;
+import com.squareup.picasso.MemoryPolicy;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.Target;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+
+// HKO weather icons from hko_icons_atlas.png when it is bundled, network only for codes the atlas does not have
+// Without the asset every code is loaded from the network
+//
+// Atlas layout: square cells, ATLAS_COLUMNS per row, one per code in KNOWN_CODES order,
+// drawn at the largest size shown (150 px). Each size is drawn from the cell once and kept in IconCache
+// BENCH/IconAtlasPacker builds the file, keep its codes and layout in step with these
+public class WeatherIcons {
+
+    private static final String TAG = "WeatherIcons";
+    public static final String ATLAS_ASSET = "hko_icons_atlas.png";
+    private static final int ATLAS_COLUMNS = 8;
+
+    // Icon codes HKO publishes, sorted
+    private static final int[] KNOWN_CODES = {
+            50, 51, 52, 53, 54,
+            60, 61, 62, 63, 64, 65,
+            70, 71, 72, 73, 74, 75, 76, 77,
+            80, 81, 82, 83, 84, 85,
+            90, 91, 92, 93
+    };
+
+    // One bitmap per known code, cut from the atlas once. Null until loaded or if there is no atlas
+    private static volatile Bitmap[] icons;
+
+    // Decode and slice the atlas, call off the main thread. Keeps network loading on failure
+    public static void load(AssetManager assets) {
+        Bitmap atlas;
+        try (InputStream in = assets.open(ATLAS_ASSET)) {
+            atlas = BitmapFactory.decodeStream(in);
+        } catch (IOException e) {
+            Log.w(TAG, "No icon atlas, loading icons from HKO", e);
+            return;
+        }
+        if (atlas == null) {
+            Log.w(TAG, "Icon atlas could not be decoded, loading icons from HKO");
+            return;
+        }
+
+        int cell = atlas.getWidth() / ATLAS_COLUMNS;
+        int rows = (KNOWN_CODES.length + ATLAS_COLUMNS - 1) / ATLAS_COLUMNS;
+        if (cell == 0 || atlas.getHeight() < rows * cell) {
+            Log.w(TAG, "Icon atlas is " + atlas.getWidth() + "x" + atlas.getHeight() + ", expected "
+                    + ATLAS_COLUMNS + " columns and " + rows + " rows");
+            atlas.recycle();
+            return;
+        }
+
+        Bitmap[] sliced = new Bitmap[KNOWN_CODES.length];
+        for (int i = 0; i < KNOWN_CODES.length; i++) {
+            int x = (i % ATLAS_COLUMNS) * cell;
+            int y = (i / ATLAS_COLUMNS) * cell;
+            sliced[i] = Bitmap.createBitmap(atlas, x, y, cell, cell);
+        }
+        atlas.recycle();
+
+        icons = sliced;
+        Log.d(TAG, "Loaded " + sliced.length + " icons at " + cell + " px");
+    }
+
+    // Network loads in progress, by view. Picasso only keeps weak references to targets
+    private static final HashMap<ImageView, IconTarget> pending = new HashMap<>();
+    private static final HashSet<IconTarget> warming = new HashSet<>();
+
+    // Show the icon for a code at sizePx, main thread only
+    // Each (code, size) is drawn or downloaded once, then served from IconCache
+    public static void bind(ImageView view, int iconCode, int sizePx) {
+        // A recycled row may still have a network load pending
+        IconTarget previous = pending.remove(view);
+        if (previous != null) {
+            Picasso.get().cancelRequest(previous);
+        }
+
+        Bitmap bitmap = IconCache.get(iconCode, sizePx);
+        if (bitmap == null) {
+            Bitmap[] loaded = icons;
+            int index = indexOf(iconCode);
+            if (loaded != null && index >= 0) {
+                bitmap = IconCache.scale(loaded[index], sizePx);
+                IconCache.put(iconCode, sizePx, bitmap);
+            }
+        }
+        if (bitmap != null) {
+            IconCache.show(view, iconCode, sizePx, bitmap);
+            return;
+        }
+
+        // IconCache is the memory tier, Picasso only downloads and decodes
+        IconTarget target = new IconTarget(view, iconCode, sizePx);
+        pending.put(view, target);
+        Picasso.get()
+                .load(HKOApiHelper.getHKOOfficialIconUrl(iconCode))
+                .resize(sizePx, sizePx)
+                .centerInside()
+                .memoryPolicy(MemoryPolicy.NO_CACHE, MemoryPolicy.NO_STORE)
+                .into(target);
+    }
+
+    // Get an icon into IconCache before any view needs it, main thread only
+    public static void warm(int iconCode, int sizePx) {
+        if (IconCache.get(iconCode, sizePx) != null) {
+            return;
+        }
+
+        Bitmap[] loaded = icons;
+        int index = indexOf(iconCode);
+        if (loaded != null && index >= 0) {
+            IconCache.put(iconCode, sizePx, IconCache.scale(loaded[index], sizePx));
+            return;
+        }
+
+        IconTarget target = new IconTarget(null, iconCode, sizePx);
+        warming.add(target);
+        Picasso.get()
+                .load(HKOApiHelper.getHKOOfficialIconUrl(iconCode))
+                .resize(sizePx, sizePx)
+                .centerInside()
+                .memoryPolicy(MemoryPolicy.NO_CACHE, MemoryPolicy.NO_STORE)
+                .priority(Picasso.Priority.LOW)
+                .into(target);
+    }
+
+    // Puts the download in IconCache and shows it on the view, unless the view was rebound meanwhile
+    // view is null when only warming the cache
+    private static class IconTarget implements Target {
+        private final ImageView view;
+        private final int iconCode;
+        private final int size;
+        private final long loadStart = System.nanoTime();
+
+        IconTarget(ImageView view, int iconCode, int size) {
+            this.view = view;
+            this.iconCode = iconCode;
+            this.size = size;
+        }
+
+        @Override
+        public void onBitmapLoaded(Bitmap bitmap, Picasso.LoadedFrom from) {
+            HKOMetrics.record(HKOMetrics.Stage.ICON, HKOMetrics.KEY_ICON, loadStart);
+            IconCache.put(iconCode, size, bitmap);
+            warming.remove(this);
+            if (view != null && pending.get(view) == this) {
+                pending.remove(view);
+                IconCache.show(view, iconCode, size, bitmap);
+            }
+        }
+
+        @Override
+        public void onBitmapFailed(Exception e, Drawable errorDrawable) {
+            Log.w(TAG, "Failed to load icon " + iconCode, e);
+            HKOMetrics.count(HKOMetrics.Counter.FAILURE, HKOMetrics.KEY_ICON);
+            warming.remove(this);
+            if (view != null && pending.get(view) == this) {
+                pending.remove(view);
+            }
+        }
+
+        @Override
+        public void onPrepareLoad(Drawable placeHolderDrawable) {
+            // Keep showing the current icon until the new one arrives
+        }
+    }
+
+    private static int indexOf(int iconCode) {
+        int low = 0;
+        int high = KNOWN_CODES.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (KNOWN_CODES[mid] < iconCode) {
+                low = mid + 1;
+            } else if (KNOWN_CODES[mid] > iconCode) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.project.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+// Where the core reads its bundled data files (station table, district boundaries) from
+// The app passes its APK assets (see HKOAndroid), a JVM a directory through FileAssetSource
+public interface AssetSource {
+
+    InputStream open(String name) throws IOException;
+
+    // The whole file mapped read-only, or null if it cannot be mapped (e.g. compressed in the APK)
+    ByteBuffer map(String name) throws IOException;
+}
@@ -0,0 +1,57 @@
+package com.example.project.core;
+
+// The 18 districts of Hong Kong, ordinal() indexes the arrays in DistrictSnapshot
+public enum District {
+    // Hong Kong Island
+    CENTRAL_AND_WESTERN("Central & Western District"),
+    WAN_CHAI("Wan Chai"),
+    EASTERN("Eastern District"),
+    SOUTHERN("Southern District"),
+
+    // Kowloon
+    YAU_TSIM_MONG("Yau Tsim Mong"),
+    SHAM_SHUI_PO("Sham Shui Po"),
+    KOWLOON_CITY("Kowloon City"),
+    WONG_TAI_SIN("Wong Tai Sin"),
+    KWUN_TONG("Kwun Tong"),
+
+    // New Territories
+    TSUEN_WAN("Tsuen Wan"),
+    TUEN_MUN("Tuen Mun"),
+    YUEN_LONG("Yuen Long"),
+    NORTH("North District"),
+    TAI_PO("Tai Po"),
+    SHA_TIN("Sha Tin"),
+    SAI_KUNG("Sai Kung"),
+    KWAI_TSING("Kwai Tsing"),
+    ISLANDS("Islands District");
+
+    public static final int COUNT = 18;
+
+    // values() copies the array on every call, keep one copy
+    private static final District[] ALL = values();
+
+    private final String displayName;
+
+    District(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public static District get(int ordinal) {
+        return ALL[ordinal];
+    }
+
+    // Find a district by its display name, null if there is none
+    public static District fromName(String name) {
+        for (District district : ALL) {
+            if (district.displayName.equals(name)) {
+                return district;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.project.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+// Simplified boundary polygons of the 18 districts, read from the bundled hko_district_boundaries.bin asset
+//
+// File layout, big-endian:
+//   int magic 'HKDB', int version (1), int polygon count
+//   per polygon: int District ordinal, float minLat, minLon, maxLat, maxLon, int vertex count,
+//                then vertex count pairs of float lat, lon
+// A district made of several islands has one polygon per island. Polygons must be sorted by minLat
+// BENCH/BoundaryPacker writes it from GeoJSON boundaries. Not every district needs polygons, DistrictMapper
+// uses the nearest centroid for points outside all of them
+// The asset has to stay uncompressed in the APK (aaptOptions noCompress "bin") for the mapping to work
+public class DistrictBoundaries {
+
+    private static final String TAG = "DistrictBoundaries";
+    public static final String ASSET_NAME = "hko_district_boundaries.bin";
+
+    private static final int MAGIC = 0x484B4442; // "HKDB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int POLYGON_HEADER_BYTES = 24;
+    private static final int VERTEX_BYTES = 8;
+
+    private static volatile DistrictBoundaries current;
+    private static boolean loadStarted;
+
+    // Bounding boxes of every polygon, the only part looked at for most queries
+    private final District[] districts;
+    private final float[] minLat;
+    private final float[] minLon;
+    private final float[] maxLat;
+    private final float[] maxLon;
+
+    // Where each polygon's vertices start in the buffer, and how many it has
+    private final int[] vertexOffset;
+    private final int[] vertexCount;
+    private final ByteBuffer buffer;
+
+    private DistrictBoundaries(ByteBuffer buffer, int polygons) {
+        this.buffer = buffer;
+        districts = new District[polygons];
+        minLat = new float[polygons];
+        minLon = new float[polygons];
+        maxLat = new float[polygons];
+        maxLon = new float[polygons];
+        vertexOffset = new int[polygons];
+        vertexCount = new int[polygons];
+    }
+
+    // Null until the asset has been loaded, or if there is no usable asset
+    public static DistrictBoundaries get() {
+        return current;
+    }
+
+    // Load the asset on the first call, off the main thread. Queries use the centroids until it is ready
+    public static synchronized void loadLazily(AssetSource assets) {
+        if (loadStarted) {
+            return;
+        }
+        loadStarted = true;
+        HKOCache.execute(() -> {
+            DistrictBoundaries boundaries = load(assets);
+            if (boundaries != null) {
+                current = boundaries;
+                HKOLog.d(TAG, "Loaded {} district polygons", boundaries.districts.length);
+            }
+        });
+    }
+
+    // Read the asset on the calling thread, null if there is none or it is unreadable
+    // The app goes through loadLazily, tools and benchmarks call this directly
+    public static DistrictBoundaries load(AssetSource assets) {
+        ByteBuffer buffer;
+        try {
+            buffer = open(assets);
+        } catch (IOException e) {
+            HKOLog.w(TAG, "No boundary asset, using district centroids", e);
+            return null;
+        }
+
+        try {
+            return parse(buffer);
+        } catch (RuntimeException e) {
+            // Truncated file or a bad ordinal
+            HKOLog.w(TAG, "Unreadable boundary asset, using district centroids", e);
+            return null;
+        }
+    }
+
+    // Map the asset when it can be mapped (stored uncompressed in the APK), otherwise read it into memory
+    private static ByteBuffer open(AssetSource assets) throws IOException {
+        try {
+            ByteBuffer mapped = assets.map(ASSET_NAME);
+            if (mapped != null) {
+                return mapped;
+            }
+        } catch (IOException e) {
+            // Fall back to reading it
+        }
+
+        try (InputStream in = assets.open(ASSET_NAME)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+            return ByteBuffer.wrap(out.toByteArray());
+        }
+    }
+
+    private static DistrictBoundaries parse(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " boundary file");
+        }
+
+        int polygons = buffer.getInt(8);
+        DistrictBoundaries boundaries = new DistrictBoundaries(buffer, polygons);
+
+        int position = HEADER_BYTES;
+        for (int i = 0; i < polygons; i++) {
+            boundaries.districts[i] = District.get(buffer.getInt(position));
+            boundaries.minLat[i] = buffer.getFloat(position + 4);
+            boundaries.minLon[i] = buffer.getFloat(position + 8);
+            boundaries.maxLat[i] = buffer.getFloat(position + 12);
+            boundaries.maxLon[i] = buffer.getFloat(position + 16);
+            boundaries.vertexCount[i] = buffer.getInt(position + 20);
+            boundaries.vertexOffset[i] = position + POLYGON_HEADER_BYTES;
+            position = boundaries.vertexOffset[i] + boundaries.vertexCount[i] * VERTEX_BYTES;
+        }
+        if (position > buffer.limit()) {
+            throw new IndexOutOfBoundsException("Boundary file is truncated");
+        }
+        return boundaries;
+    }
+
+    public int getPolygonCount() {
+        return districts.length;
+    }
+
+    // The district whose polygon contains the point, null if it is in none of them (e.g. offshore)
+    public District find(double latitude, double longitude) {
+        for (int i = 0; i < districts.length; i++) {
+            // Sorted by minLat, nothing further on can contain the point
+            if (minLat[i] > latitude) {
+                break;
+            }
+            if (latitude > maxLat[i] || longitude < minLon[i] || longitude > maxLon[i]) {
+                continue;
+            }
+            if (contains(i, latitude, longitude)) {
+                return districts[i];
+            }
+        }
+        return null;
+    }
+
+    // Even-odd ray casting, straight from the buffer
+    private boolean contains(int polygon, double latitude, double longitude) {
+        int count = vertexCount[polygon];
+        int offset = vertexOffset[polygon];
+        boolean inside = false;
+
+        int last = offset + (count - 1) * VERTEX_BYTES;
+        double prevLat = buffer.getFloat(last);
+        double prevLon = buffer.getFloat(last + 4);
+        for (int i = 0; i < count; i++) {
+            int position = offset + i * VERTEX_BYTES;
+            double lat = buffer.getFloat(position);
+            double lon = buffer.getFloat(position + 4);
+
+            if ((lat > latitude) != (prevLat > latitude)
+                    && longitude < (prevLon - lon) * (latitude - lat) / (prevLat - lat) + lon) {
+                inside = !inside;
+            }
+            prevLat = lat;
+            prevLon = lon;
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.project.core;
+
+public class DistrictMapper {
+
+    // District data structure
+    public static class DistrictLocation {
+        public double latitude;
+        public double longitude;
+//        public String districtCode;
+        public String districtName;
+
+
+        public DistrictLocation(double lat, double lon, String name) {
+            this.latitude = lat;
+            this.longitude = lon;
+            this.districtName = name;
+        }
+    }
+
+    // Coordinates of the 18 districts of Hong Kong, in the same order as District
+    private static final DistrictLocation[] DISTRICT_LOCATIONS = {
+            // Hong Kong Island
+            new DistrictLocation(22.2866, 114.1547, "Central & Western District"),
+            new DistrictLocation(22.2783, 114.1747, "Wan Chai"),
+            new DistrictLocation(22.2866, 114.2147, "Eastern District"),
+            new DistrictLocation(22.2483, 114.1747, "Southern District"),
+
+            // Kowloon
+            new DistrictLocation(22.3066, 114.1697, "Yau Tsim Mong"),
+            new DistrictLocation(22.3316, 114.1597, "Sham Shui Po"),
+            new DistrictLocation(22.3166, 114.1897, "Kowloon City"),
+            new DistrictLocation(22.3366, 114.1997, "Wong Tai Sin"),
+            new DistrictLocation(22.3116, 114.2247, "Kwun Tong"),
+
+            // New Territories
+            new DistrictLocation(22.3716, 114.1147, "Tsuen Wan"),
+            new DistrictLocation(22.3916, 113.9747, "Tuen Mun"),
+            new DistrictLocation(22.4466, 114.0347, "Yuen Long"),
+            new DistrictLocation(22.4966, 114.1297, "North District"),
+            new DistrictLocation(22.4516, 114.1647, "Tai Po"),
+            new DistrictLocation(22.3816, 114.1947, "Sha Tin"),
+            new DistrictLocation(22.3816, 114.2647, "Sai Kung"),
+            new DistrictLocation(22.3566, 114.1347, "Kwai Tsing"),
+            new DistrictLocation(22.2666, 113.9447, "Islands District")
+    };
+
+    private static final double EARTH_RADIUS = 6371.0; // Earth radius (km)
+
+    // Area the pre-filter is trusted in, a little larger than Hong Kong
+    private static final double MIN_LATITUDE = 21.8;
+    private static final double MAX_LATITUDE = 22.9;
+    private static final double MIN_LONGITUDE = 113.5;
+    private static final double MAX_LONGITUDE = 114.7;
+
+    // Districts whose flat distance is within this factor of the closest one get the full Haversine.
+    // At this scale the flat distance is off by far less than 1%, so the nearest district is always kept
+    private static final double CANDIDATE_MARGIN = 1.01;
+
+    // Per district values that do not depend on the query, computed once
+    private static final int COUNT = DISTRICT_LOCATIONS.length;
+    private static final double[] LATITUDE_RADIANS = new double[COUNT];
+    private static final double[] LONGITUDE_RADIANS = new double[COUNT];
+    private static final double[] COS_LATITUDE = new double[COUNT];
+
+    // Scratch space for the pre-filter, location updates can come from more than one thread
+    private static final ThreadLocal<double[]> FLAT_DISTANCES = new ThreadLocal<double[]>() {
+        @Override
+        protected double[] initialValue() {
+            return new double[COUNT];
+        }
+    };
+
+    static {
+        for (int i = 0; i < COUNT; i++) {
+            LATITUDE_RADIANS[i] = Math.toRadians(DISTRICT_LOCATIONS[i].latitude);
+            LONGITUDE_RADIANS[i] = Math.toRadians(DISTRICT_LOCATIONS[i].longitude);
+            COS_LATITUDE[i] = Math.cos(LATITUDE_RADIANS[i]);
+        }
+    }
+
+    private static volatile AssetSource assets;
+
+    // Remember where the boundary asset lives, it is only read on the first lookup
+    public static void init(AssetSource assetSource) {
+        assets = assetSource;
+    }
+
+    /**
+     * Find the district containing the point using the district boundaries
+     * Falls back to the nearest district centroid offshore, or while the boundaries are not loaded
+     * @param latitude
+     * @param longitude
+     * @return the district data, if not found, return null
+     */
+    public static DistrictLocation findDistrict(double latitude, double longitude) {
+        long start = System.nanoTime();
+        DistrictBoundaries boundaries = DistrictBoundaries.get();
+        if (boundaries == null) {
+            AssetSource assetSource = assets;
+            if (assetSource != null) {
+                DistrictBoundaries.loadLazily(assetSource);
+            }
+        } else {
+            District district = boundaries.find(latitude, longitude);
+            if (district != null) {
+                HKOMetrics.record(HKOMetrics.Stage.MAP, HKOMetrics.KEY_POLYGON, start);
+                return DISTRICT_LOCATIONS[district.ordinal()];
+            }
+        }
+        DistrictLocation nearest = findNearestDistrict(latitude, longitude);
+        HKOMetrics.record(HKOMetrics.Stage.MAP, HKOMetrics.KEY_CENTROID, start);
+        return nearest;
+    }
+
+    // The centroid entry of a district, the same object findDistrict returns for it
+    public static DistrictLocation getLocation(District district) {
+        return DISTRICT_LOCATIONS[district.ordinal()];
+    }
+
+    /**
+     * Find the nearest 18 districts of Hong Kong based on longitude and latitude
+     * Cheap enough to call on every location update, it does not log
+     * @param latitude
+     * @param longitude
+     * @return the nearest district data, if not found, return null
+     */
+    public static DistrictLocation findNearestDistrict(double latitude, double longitude) {
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+
+        if (latitude < MIN_LATITUDE || latitude > MAX_LATITUDE
+                || longitude < MIN_LONGITUDE || longitude > MAX_LONGITUDE) {
+            // Far from Hong Kong the flat distance is not close enough, compare every district
+            return findNearestDistrict(latitude, longitude, cosLatitude, null, Double.MAX_VALUE);
+        }
+
+        // Equirectangular pre-filter, squared flat distances need no trig
+        double latitudeRadians = Math.toRadians(latitude);
+        double longitudeRadians = Math.toRadians(longitude);
+        double[] flatDistances = FLAT_DISTANCES.get();
+        double minFlatDistance = Double.MAX_VALUE;
+        for (int i = 0; i < COUNT; i++) {
+            double x = (LONGITUDE_RADIANS[i] - longitudeRadians) * cosLatitude;
+            double y = LATITUDE_RADIANS[i] - latitudeRadians;
+            flatDistances[i] = x * x + y * y;
+            minFlatDistance = Math.min(minFlatDistance, flatDistances[i]);
+        }
+
+        double limit = minFlatDistance * CANDIDATE_MARGIN * CANDIDATE_MARGIN;
+        return findNearestDistrict(latitude, longitude, cosLatitude, flatDistances, limit);
+    }
+
+    // Full Haversine over the districts whose flat distance is within the limit, in table order
+    // so ties go to the same district as comparing them all
+    private static DistrictLocation findNearestDistrict(double latitude, double longitude, double cosLatitude,
+                                                        double[] flatDistances, double limit) {
+        double minDistance = Double.MAX_VALUE;
+        DistrictLocation nearestDistrict = null;
+
+        for (int i = 0; i < COUNT; i++) {
+            if (flatDistances != null && flatDistances[i] > limit) {
+                continue;
+            }
+
+            DistrictLocation district = DISTRICT_LOCATIONS[i];
+            double distance = calculateDistance(latitude, longitude, cosLatitude,
+                    district.latitude, district.longitude, COS_LATITUDE[i]);
+
+            if (distance < minDistance) {
+                minDistance = distance;
+                nearestDistrict = district;
+            }
+        }
+
+        return nearestDistrict;
+    }
+
+    /**
+     * Calculate the distance between two points (in kilometers) using the Haversine formula
+     * The cosines of both latitudes are passed in, they only change with the point
+     */
+    private static double calculateDistance(double lat1, double lon1, double cosLat1,
+                                            double lat2, double lon2, double cosLat2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                cosLat1 * cosLat2 *
+                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS * c;
+    }
+
+/**
+ * Get district information based on district code
+ */
+// public static DistrictLocation getDistrictByCode(String districtCode) {
+// for (DistrictLocation district : DISTRICT_LOCATIONS) {
+// if (district.districtCode.equals(districtCode)) {
+// return district;
+// }
+// }
+// return null;
+// }
+
+/**
+ * Get a list of all districts
+ */
+// public static DistrictLocation[] getAllDistricts() {
+// return DISTRICT_LOCATIONS.clone();
+// }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.example.project.core;
+
+// Read-only view of the district readings, handed to MainActivity
+public interface DistrictReadings {
+    boolean hasTemperature(District district);
+    double getTemperature(District district);
+    boolean hasRainfall(District district);
+    double getRainfall(District district);
+    String getFormattedTemperature(District district);
+    String getFormattedRainfall(District district);
+}
@@ -0,0 +1,102 @@
+package com.example.project.core;
+
+// Readings of all 18 districts, held in primitive arrays indexed by District.ordinal()
+// Filled on the parse thread, which also renders the display text so the UI only assigns it
+// The parse loop only stores numbers, render() formats the text once per district after it
+// Each rhrread parse fills a new one and it is never written again once returned, which is why the
+// setters are package-private. Published snapshots are shared: the memory cache, the 304 path and the
+// coalesced result hand out the same one, and MainActivity diffs the previous against the next with
+// changedDistricts. Refilling one in place would make that diff compare a snapshot with itself
+public class DistrictSnapshot implements DistrictReadings {
+
+    private final double[] temperature = new double[District.COUNT];
+    private final double[] rainfall = new double[District.COUNT];
+    private final String[] temperatureText = new String[District.COUNT];
+    private final String[] rainfallText = new String[District.COUNT];
+
+    // Bit n is set when district n has a reading
+    private long temperatureMask;
+    private long rainfallMask;
+
+    // Several stations can report for one district, the last one wins
+    void setTemperature(District district, double value) {
+        temperature[district.ordinal()] = value;
+        temperatureMask |= 1L << district.ordinal();
+    }
+
+    void setRainfall(District district, double value) {
+        rainfall[district.ordinal()] = value;
+        rainfallMask |= 1L << district.ordinal();
+    }
+
+    // Format the display text of every district with a reading, once the parse has set them all
+    void render() {
+        for (int i = 0; i < District.COUNT; i++) {
+            if ((temperatureMask & (1L << i)) != 0) {
+                temperatureText[i] = String.format("%.0f°", temperature[i]);
+            }
+            if ((rainfallMask & (1L << i)) != 0) {
+                rainfallText[i] = String.format("%.0f mm", rainfall[i]);
+            }
+        }
+    }
+
+    // Bit n is set when district n reads differently in the two snapshots, every bit if before is null
+    public static long changedDistricts(DistrictReadings before, DistrictReadings after) {
+        if (before == after) {
+            return 0;
+        }
+        long all = (1L << District.COUNT) - 1;
+        if (before == null || after == null) {
+            return all;
+        }
+
+        long changed = 0;
+        for (int i = 0; i < District.COUNT; i++) {
+            District district = District.get(i);
+            if (before.hasTemperature(district) != after.hasTemperature(district)
+                    || before.getTemperature(district) != after.getTemperature(district)
+                    || before.hasRainfall(district) != after.hasRainfall(district)
+                    || before.getRainfall(district) != after.getRainfall(district)) {
+                changed |= 1L << i;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean hasTemperature(District district) {
+        return (temperatureMask & (1L << district.ordinal())) != 0;
+    }
+
+    @Override
+    public double getTemperature(District district) {
+        return temperature[district.ordinal()];
+    }
+
+    @Override
+    public boolean hasRainfall(District district) {
+        return (rainfallMask & (1L << district.ordinal())) != 0;
+    }
+
+    @Override
+    public double getRainfall(District district) {
+        return rainfall[district.ordinal()];
+    }
+
+    @Override
+    public String getFormattedTemperature(District district) {
+        if (hasTemperature(district)) {
+            return temperatureText[district.ordinal()];
+        }
+        return "--°";
+    }
+
+    @Override
+    public String getFormattedRainfall(District district) {
+        if (hasRainfall(district)) {
+            return rainfallText[district.ordinal()];
+        }
+        return "-- mm";
+    }
+}
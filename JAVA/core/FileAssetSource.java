@@ -0,0 +1,32 @@
+package com.example.project.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+// Assets read from a directory, for running the core on a plain JVM
+public class FileAssetSource implements AssetSource {
+
+    private final File dir;
+
+    public FileAssetSource(File dir) {
+        this.dir = dir;
+    }
+
+    @Override
+    public InputStream open(String name) throws IOException {
+        return new FileInputStream(new File(dir, name));
+    }
+
+    @Override
+    public ByteBuffer map(String name) throws IOException {
+        // The mapping stays valid after the channel is closed
+        try (RandomAccessFile file = new RandomAccessFile(new File(dir, name), "r")) {
+            return file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+        }
+    }
+}
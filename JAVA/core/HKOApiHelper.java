@@ -0,0 +1,1269 @@
+package com.example.project.core;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// HKO open data client: fetching, parsing, caching and request sharing. Plain Java, the transport,
+// logger (HKOLog) and callback executor are injected, HKOAndroid wires in the Android ones
+public class HKOApiHelper {
+
+    private static final String TAG = "HKOApiHelper";
+    private static volatile HKOTransport transport = defaultTransport();
+
+    private static final String DEFAULT_BASE_URL = "https://data.weather.gov.hk/weatherAPI/opendata/weather.php";
+    private static volatile String baseUrl = DEFAULT_BASE_URL;
+    private static boolean assetsLoaded = false;
+    private static final String LANG = "en";
+    public static final String DATA_TYPE_RHRREAD = "rhrread";
+    public static final String DATA_TYPE_FLW = "flw";
+    public static final String DATA_TYPE_FND = "fnd";
+
+    // Whether the last rhrread carried a rainstorm or tropical cyclone signal, read by RefreshScheduler
+    private static volatile boolean severeWeather = false;
+
+    // Enables the on-disk cache in cacheDir and the bundled data in assets, call before the first request
+    // Either may be null, e.g. a benchmark without a disk cache
+    public static synchronized void init(File cacheDir, AssetSource assets) {
+        if (cacheDir != null) {
+            HKOCache.init(cacheDir);
+        }
+
+        // Swap in the bundled station table once, off the calling thread
+        if (!assetsLoaded && assets != null) {
+            assetsLoaded = true;
+            HKOCache.execute(() -> StationIndex.load(assets));
+            DistrictMapper.init(assets);
+        }
+    }
+
+    // Timeouts, retries, hedging and the circuit breaker, see ResilientTransport
+    private static HKOTransport defaultTransport() {
+        return new ResilientTransport(new OkHttpTransport());
+    }
+
+    // Installed as is, wrap it in a ResilientTransport to keep retries and the circuit breaker.
+    // null goes back to the default
+    public static void setTransport(HKOTransport newTransport) {
+        transport = newTransport != null ? newTransport : defaultTransport();
+    }
+
+    // Where callbacks run. The app passes its main thread, the default runs them on the thread that
+    // finished the request
+    public static void setCallbackExecutor(Executor executor) {
+        callbackExecutor = executor != null ? executor : Runnable::run;
+    }
+
+    // Point requests at another server, e.g. a local MockWebServer in tests
+    public static void setBaseUrl(String url) {
+        baseUrl = url != null ? url : DEFAULT_BASE_URL;
+        synchronized (validators) {
+            validators.clear();
+        }
+        // Nor are recent results from the old server reused
+        synchronized (sharedRequests) {
+            sharedRequests.values().removeIf(request -> !request.inFlight);
+        }
+    }
+
+    // ==================== MainActivity Related ====================
+
+    // MainActivity Callback interface
+    // onDataReceived is called for a paint from cache as well as for data from the network, onError only
+    // when there is nothing to show. onRefreshed follows every trip to the network, after the other two
+    public interface MainActivityCallback {
+        void onDataReceived(DistrictReadings districts, String generalWeather, String hkoHumidity, int weatherIcon, String highLowTemp);
+        void onError(String error);
+        // The dataTypes that were requested and came back (a 304 included) and those that failed
+        // A dataType served from cache is in neither
+        void onRefreshed(String[] succeeded, String[] failed);
+    }
+
+    // Parsed rhrread, everything MainActivity needs apart from the weather overview
+    public static class RealTimeData {
+        public DistrictSnapshot districts;
+        public String hkoHumidity;
+        public int weatherIcon;
+        public String highLowTemp;
+        public boolean severeWeather;
+    }
+
+    // MainActivity main method
+    // Paints from cache first, then refreshes whatever is stale in the background
+    // Cancel the returned handle in onDestroy
+    public static RequestHandle<MainActivityCallback> getMainActivityData(MainActivityCallback callback) {
+        return refreshMainActivityData(Collections.emptySet(), callback);
+    }
+
+    // Same as getMainActivityData, but the given dataTypes are requested again even if the cache is fresh
+    // Used by RefreshScheduler, the request is conditional so an unchanged payload costs a 304
+    public static RequestHandle<MainActivityCallback> refreshMainActivityData(Set<String> forceDataTypes,
+                                                                             MainActivityCallback callback) {
+        RequestHandle<MainActivityCallback> handle = new RequestHandle<>(callback);
+        final boolean forceRealTime = forceDataTypes.contains(DATA_TYPE_RHRREAD);
+        final boolean forceSituation = forceDataTypes.contains(DATA_TYPE_FLW);
+        HKOCache.execute(() -> {
+            if (handle.isCancelled()) {
+                return;
+            }
+
+            HKOCache.Entry<RealTimeData> realTime = HKOCache.get(DATA_TYPE_RHRREAD, LANG, HKOApiHelper::parseRealTimeData);
+            HKOCache.Entry<String> situation = HKOCache.get(DATA_TYPE_FLW, LANG, HKOApiHelper::parseGeneralSituationText);
+
+            // A forced refresh only happens with data already on screen, do not paint the cache again
+            if (realTime != null && forceDataTypes.isEmpty()) {
+                HKOLog.d(TAG, "Painting MainActivity from cache");
+                deliverMainActivityData(realTime.value, situation != null ? situation.value : null, handle);
+
+                if (realTime.isFresh() && situation != null && situation.isFresh()) {
+                    return;
+                }
+            }
+
+            fetchMainActivityData(realTime, situation, forceRealTime, forceSituation, handle);
+        });
+        return handle;
+    }
+
+    // rhrread and flw are requested at the same time and joined before delivering
+    // A leg that is still fresh in the cache and not forced is completed straight away instead
+    private static void fetchMainActivityData(HKOCache.Entry<RealTimeData> cachedRealTime,
+                                              HKOCache.Entry<String> cachedSituation,
+                                              boolean forceRealTime, boolean forceSituation,
+                                              RequestHandle<MainActivityCallback> handle) {
+        final boolean paintedFromCache = cachedRealTime != null;
+        final boolean fetchRealTime = cachedRealTime == null || !cachedRealTime.isFresh() || forceRealTime;
+        final boolean fetchSituation = cachedSituation == null || !cachedSituation.isFresh() || forceSituation;
+
+        FetchJoin join = new FetchJoin(2, results -> {
+            @SuppressWarnings("unchecked")
+            FetchResult<RealTimeData> rhrread = (FetchResult<RealTimeData>) results[0];
+            @SuppressWarnings("unchecked")
+            FetchResult<String> flw = (FetchResult<String>) results[1];
+
+            joinMainActivityData(rhrread, flw, cachedSituation, paintedFromCache, handle);
+
+            // Also when cached data stays on screen, so the caller can retry what failed
+            ArrayList<String> succeeded = new ArrayList<>(2);
+            ArrayList<String> failed = new ArrayList<>(2);
+            if (fetchRealTime) {
+                (rhrread.isSuccessful() ? succeeded : failed).add(DATA_TYPE_RHRREAD);
+            }
+            if (fetchSituation) {
+                (flw.isSuccessful() ? succeeded : failed).add(DATA_TYPE_FLW);
+            }
+            String[] succeededTypes = succeeded.toArray(new String[0]);
+            String[] failedTypes = failed.toArray(new String[0]);
+            deliver(handle, target -> target.onRefreshed(succeededTypes, failedTypes));
+        });
+
+        FetchCallback<RealTimeData> rhrreadLeg = join.leg(0);
+        if (fetchRealTime) {
+            fetchShared(DATA_TYPE_RHRREAD, LANG, HKOApiHelper::parseRealTimeData, handle, rhrreadLeg);
+        } else {
+            rhrreadLeg.onComplete(FetchResult.fromCache(cachedRealTime.value));
+        }
+
+        FetchCallback<String> flwLeg = join.leg(1);
+        if (fetchSituation) {
+            fetchShared(DATA_TYPE_FLW, LANG, HKOApiHelper::parseGeneralSituationText, handle, flwLeg);
+        } else {
+            flwLeg.onComplete(FetchResult.fromCache(cachedSituation.value));
+        }
+    }
+
+    // Deliver the joined rhrread and flw, or the rhrread error if there is nothing on screen yet
+    private static void joinMainActivityData(FetchResult<RealTimeData> rhrread, FetchResult<String> flw,
+                                             HKOCache.Entry<String> cachedSituation, boolean paintedFromCache,
+                                             RequestHandle<MainActivityCallback> handle) {
+        // Real time data (rhrread) is required, the screen cannot be drawn without it
+        // If cached data is already on screen keep it, onRefreshed reports the failure
+        if (rhrread.error != null) {
+            HKOLog.e(TAG, "Failed to get rhrread data", rhrread.error);
+            if (!paintedFromCache) {
+                deliver(handle, target -> target.onError("Unable to obtain real-time data: " + rhrread.error.getMessage()));
+            }
+            return;
+        }
+        if (rhrread.parseError != null) {
+            HKOLog.e(TAG, "Error parsing MainActivity data", rhrread.parseError);
+            if (!paintedFromCache) {
+                deliver(handle, target -> target.onError("Failed to parse data: " + rhrread.parseError.getMessage()));
+            }
+            return;
+        }
+        if (!rhrread.isSuccessful()) {
+            HKOLog.w(TAG, "Real-time data API failed with code: " + rhrread.code);
+            if (!paintedFromCache) {
+                deliver(handle, target -> target.onError("Real-time data API failed: " + rhrread.code));
+            }
+            return;
+        }
+
+        // Weather overview (flw) is optional, still render with rhrread if it failed
+        String generalSituation = cachedSituation != null ? cachedSituation.value : null;
+        if (flw.error != null) {
+            HKOLog.e(TAG, "Failed to get flw data", flw.error);
+        } else if (flw.parseError != null) {
+            HKOLog.e(TAG, "Error parsing flw data", flw.parseError);
+        } else if (!flw.isSuccessful()) {
+            HKOLog.w(TAG, "FLW API failed with code: " + flw.code);
+        } else {
+            generalSituation = flw.value;
+        }
+
+        HKOLog.d(TAG, "Got rhrread and flw data");
+        deliverMainActivityData(rhrread.value, generalSituation, handle);
+    }
+
+    private static void deliverMainActivityData(RealTimeData data, String generalSituation,
+                                                RequestHandle<MainActivityCallback> handle) {
+        // Get weather overview
+        final String generalWeather;
+        if (generalSituation != null) {
+            generalWeather = generalSituation;
+            if (HKOLog.isDebugEnabled()) {
+                HKOLog.d(TAG, "Got generalSituation: {}...", generalWeather.substring(0, Math.min(50, generalWeather.length())));
+            }
+        } else {
+            generalWeather = "Loading...";
+            HKOLog.w(TAG, "No generalSituation found");
+        }
+
+        severeWeather = data.severeWeather;
+        deliver(handle, target -> target.onDataReceived(data.districts, generalWeather, data.hkoHumidity, data.weatherIcon, data.highLowTemp));
+    }
+
+    public static boolean isSevereWeather() {
+        return severeWeather;
+    }
+
+    // Field names read from rhrread, everything else (uvindex, ...) is skipped
+    private static final String[] RHRREAD_FIELDS = {"temperature", "rainfall", "humidity", "icon", "warningMessage", "tcmessage"};
+    private static final String[] SECTION_FIELDS = {"data"};
+    private static final String[] TEMPERATURE_FIELDS = {"place", "value"};
+    private static final String[] RAINFALL_FIELDS = {"place", "max"};
+    private static final String[] HUMIDITY_FIELDS = {"place", "value"};
+
+    // Parsing rhrread data, streamed straight from the response without building a JSONObject tree
+    // Public so the parse benchmarks in BENCH can run it on recorded payloads
+    public static RealTimeData parseRealTimeData(Reader body) throws IOException, JSONException {
+        HKOLog.d(TAG, "Starting to parse MainActivity data");
+
+        DistrictSnapshot districts = new DistrictSnapshot();
+        StationIndex stations = StationIndex.get();
+
+        boolean hasTemperatureSection = false;
+        boolean hasRainfallSection = false;
+        String hkoHumidity = null;
+        int weatherIcon = -1;
+        boolean severeWeather = false;
+
+        HKOJsonReader reader = HKOJsonReader.obtain(body);
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.selectName(RHRREAD_FIELDS)) {
+                    case 0:
+                        // Parsing temp data
+                        hasTemperatureSection = true;
+                        parseTemperatureData(reader, stations, districts);
+                        break;
+                    case 1:
+                        // Parsing rainfall data
+                        hasRainfallSection = true;
+                        parseRainfallData(reader, stations, districts);
+                        break;
+                    case 2:
+                        // Get the humidity of the observatory
+                        hkoHumidity = parseHKOHumidity(reader, stations);
+                        break;
+                    case 3:
+                        // Get the weather icon code
+                        weatherIcon = parseWeatherIcon(reader);
+                        break;
+                    case 4:
+                        // Rainstorm warning or typhoon signal in force
+                        severeWeather |= parseSevereWarning(reader, false);
+                        break;
+                    case 5:
+                        // Any tropical cyclone message
+                        severeWeather |= parseSevereWarning(reader, true);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+        } finally {
+            reader.recycle();
+        }
+
+        if (!hasTemperatureSection) {
+            HKOLog.w(TAG, "No temperature data found");
+        }
+        if (!hasRainfallSection) {
+            HKOLog.w(TAG, "No rainfall data found");
+        }
+        if (hkoHumidity == null) {
+            HKOLog.w(TAG, "No HKO humidity found, using default");
+            hkoHumidity = "--%";
+        }
+        if (weatherIcon < 0) {
+            HKOLog.w(TAG, "No weather icon found, using default (50)");
+            weatherIcon = 50;
+        }
+
+        districts.render();
+
+        // Calculate the highest and lowest temperatures
+        double[] highLowTemp = calculateHighLowTemperature(districts);
+        double highTemp = highLowTemp[0];
+        double lowTemp = highLowTemp[1];
+
+        RealTimeData data = new RealTimeData();
+        data.districts = districts;
+        data.hkoHumidity = hkoHumidity;
+        data.weatherIcon = weatherIcon;
+        data.severeWeather = severeWeather;
+
+        // Create callback data including high and low temp
+        data.highLowTemp = String.format("L:%.0f° H:%.0f°", lowTemp, highTemp);
+
+        HKOLog.d(TAG, "Successfully parsed all data. High: {}°C, Low: {}°C", highTemp, lowTemp);
+        return data;
+    }
+
+    // Move into the "data" array of a rhrread section, skipping the other fields of the section
+    // Returns false (with the section consumed) if there is no data array
+    private static boolean enterSectionData(HKOJsonReader reader) throws IOException, JSONException {
+        if (reader.peek() != HKOJsonReader.BEGIN_OBJECT) {
+            reader.skipValue();
+            return false;
+        }
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.selectName(SECTION_FIELDS) == 0 && reader.peek() == HKOJsonReader.BEGIN_ARRAY) {
+                reader.beginArray();
+                return true;
+            }
+            reader.skipValue();
+        }
+        reader.endObject();
+        return false;
+    }
+
+    // Leave the "data" array and skip whatever follows it in the section
+    private static void exitSectionData(HKOJsonReader reader) throws IOException, JSONException {
+        reader.endArray();
+        while (reader.hasNext()) {
+            reader.skipValue();
+            reader.skipValue();
+        }
+        reader.endObject();
+    }
+
+    // Parsing temp data
+    private static void parseTemperatureData(HKOJsonReader reader, StationIndex stations,
+                                             DistrictSnapshot districts) throws IOException, JSONException {
+        if (!enterSectionData(reader)) {
+            HKOLog.w(TAG, "No temperature data array found");
+            return;
+        }
+
+        int count = 0;
+        while (reader.hasNext()) {
+            int station = -1;
+            String unknownPlace = "";
+            double temperature = 0.0;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.selectName(TEMPERATURE_FIELDS)) {
+                    case 0:
+                        // District names and weather stations are both in the station index
+                        station = stations.readPlace(reader);
+                        // Only copied out for the debug log
+                        if (station < 0 && HKOLog.isDebugEnabled()) {
+                            unknownPlace = reader.lastString();
+                        }
+                        break;
+                    case 1: temperature = reader.nextDouble(0.0); break;
+                    default: reader.skipValue(); break;
+                }
+            }
+            reader.endObject();
+            count++;
+
+            if (stations.isUsedFor(station, StationIndex.TEMPERATURE)) {
+                District district = stations.getDistrict(station);
+                districts.setTemperature(district, temperature);
+                HKOLog.d(TAG, "Temp: {} → {} = {}°C", stations.getPlace(station), district.getDisplayName(), temperature);
+            } else {
+                HKOLog.d(TAG, "Cannot map temperature place: {}", station >= 0 ? stations.getPlace(station) : unknownPlace);
+            }
+        }
+        exitSectionData(reader);
+        HKOLog.d(TAG, "Found {} temperature records", count);
+    }
+
+    // Analyzing rainfall data
+    private static void parseRainfallData(HKOJsonReader reader, StationIndex stations,
+                                          DistrictSnapshot districts) throws IOException, JSONException {
+        if (!enterSectionData(reader)) {
+            HKOLog.w(TAG, "No rainfall data array found");
+            return;
+        }
+
+        int count = 0;
+        while (reader.hasNext()) {
+            int station = -1;
+            String unknownPlace = "";
+            double maxRainfall = 0.0;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.selectName(RAINFALL_FIELDS)) {
+                    case 0:
+                        station = stations.readPlace(reader);
+                        // Only copied out for the debug log
+                        if (station < 0 && HKOLog.isDebugEnabled()) {
+                            unknownPlace = reader.lastString();
+                        }
+                        break;
+                    case 1: maxRainfall = reader.nextDouble(0.0); break;
+                    default: reader.skipValue(); break;
+                }
+            }
+            reader.endObject();
+            count++;
+
+            if (stations.isUsedFor(station, StationIndex.RAINFALL)) {
+                districts.setRainfall(stations.getDistrict(station), maxRainfall);
+                HKOLog.d(TAG, "雨量: {} = {}mm", stations.getPlace(station), maxRainfall);
+            } else {
+                HKOLog.d(TAG, "Cannot map rainfall place: {}", station >= 0 ? stations.getPlace(station) : unknownPlace);
+            }
+        }
+        exitSectionData(reader);
+        HKOLog.d(TAG, "Found {} rainfall records", count);
+    }
+
+    // Get the humidity of the observatory (the station marked for humidity), null if it is not in the section
+    private static String parseHKOHumidity(HKOJsonReader reader, StationIndex stations) throws IOException, JSONException {
+        if (!enterSectionData(reader)) {
+            return null;
+        }
+
+        String hkoHumidity = null;
+        while (reader.hasNext()) {
+            boolean isHKO = false;
+            double humidity = 0.0;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.selectName(HUMIDITY_FIELDS)) {
+                    case 0: isHKO = stations.isUsedFor(stations.readPlace(reader), StationIndex.HUMIDITY); break;
+                    case 1: humidity = reader.nextDouble(0.0); break;
+                    default: reader.skipValue(); break;
+                }
+            }
+            reader.endObject();
+
+            if (isHKO && hkoHumidity == null) {
+                HKOLog.d(TAG, "HKO humidity: {}%", humidity);
+                hkoHumidity = String.format("%.0f%%", humidity);
+            }
+        }
+        exitSectionData(reader);
+        return hkoHumidity;
+    }
+
+    // Get the weather icon code, -1 if the icon array is missing or empty
+    private static int parseWeatherIcon(HKOJsonReader reader) throws IOException, JSONException {
+        if (reader.peek() != HKOJsonReader.BEGIN_ARRAY) {
+            reader.skipValue();
+            return -1;
+        }
+
+        int iconCode = -1;
+        reader.beginArray();
+        if (reader.hasNext()) {
+            iconCode = reader.nextInt(50);
+            HKOLog.d(TAG, "Weather icon code from rhrread: {}", iconCode);
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+        return iconCode;
+    }
+
+    // warningMessage / tcmessage are "" when nothing is in force, otherwise an array of messages
+    // Only rainstorm and tropical cyclone messages count for warningMessage, any message counts for tcmessage
+    private static boolean parseSevereWarning(HKOJsonReader reader, boolean anyMessage) throws IOException, JSONException {
+        if (reader.peek() != HKOJsonReader.BEGIN_ARRAY) {
+            reader.skipValue();
+            return false;
+        }
+
+        boolean severe = false;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String message = reader.nextString("");
+            if (message.isEmpty()) {
+                continue;
+            }
+            if (anyMessage || message.contains("Rainstorm") || message.contains("Tropical Cyclone")) {
+                severe = true;
+            }
+        }
+        reader.endArray();
+        return severe;
+    }
+
+    // Calculate the highest and lowest temperatures
+    private static double[] calculateHighLowTemperature(DistrictSnapshot districts) {
+        double highTemp = Double.MIN_VALUE;
+        double lowTemp = Double.MAX_VALUE;
+        boolean hasValidTemp = false;
+
+        for (int i = 0; i < District.COUNT; i++) {
+            District district = District.get(i);
+            if (districts.hasTemperature(district)) {
+                double temperature = districts.getTemperature(district);
+                highTemp = Math.max(highTemp, temperature);
+                lowTemp = Math.min(lowTemp, temperature);
+                hasValidTemp = true;
+                HKOLog.d(TAG, "{}: {}°C", district.getDisplayName(), temperature);
+            }
+        }
+
+        if (!hasValidTemp) {
+            HKOLog.w(TAG, "No valid temperature data found, using default values");
+            return new double[]{0.0, 0.0};
+        }
+
+        HKOLog.d(TAG, "Temperature range: {}°C to {}°C", lowTemp, highTemp);
+        return new double[]{highTemp, lowTemp};
+    }
+
+    // ==================== SecondActivity Related====================
+
+    public static class SevenDayForecast {
+        public String date;
+        public String dayOfWeek;
+        public String weather;
+        public int maxTemp;
+        public int minTemp;
+        public String windInfo;
+        public int maxHumidity;
+        public int minHumidity;
+        public int iconCode;
+        public String rainProbability;
+
+        // Display text, rendered on the parse thread by render()
+        public String dateText;
+        public String maxTempText;
+        public String minTempText;
+        public String tempRangeText;
+        public String windText;
+        public String humidityText;
+
+        public SevenDayForecast() {}
+
+        void render() {
+            dateText = formatDate(date);
+            // Both bounds without the degree symbol, list_item.xml already has that
+            maxTempText = String.valueOf(maxTemp);
+            minTempText = String.valueOf(minTemp);
+            tempRangeText = minTemp + "-" + maxTemp + "°";
+            // Without the trailing . HKO puts after the wind description
+            windText = windInfo.endsWith(".") ? windInfo.substring(0, windInfo.length() - 1) : windInfo;
+            humidityText = minHumidity + "-" + maxHumidity + "%";
+        }
+
+        // yyyyMMdd to "d/M", "N/A" if the date is missing or malformed
+        private static String formatDate(String date) {
+            if (date == null || date.length() != 8) {
+                return "N/A";
+            }
+            try {
+                int month = Integer.parseInt(date.substring(4, 6));
+                int day = Integer.parseInt(date.substring(6, 8));
+                return day + "/" + month;
+            } catch (NumberFormatException e) {
+                return "N/A";
+            }
+        }
+    }
+
+    public interface SevenDayCallback {
+        void onSevenDayDataReceived(ArrayList<SevenDayForecast> forecasts);
+        void onError(String error);
+    }
+
+    // 7-day detailed forecasts
+    // Served from cache when possible, refreshed in the background once stale
+    public static RequestHandle<SevenDayCallback> getSevenDayForecast(SevenDayCallback callback) {
+        RequestHandle<SevenDayCallback> handle = new RequestHandle<>(callback);
+        HKOCache.execute(() -> {
+            if (handle.isCancelled()) {
+                return;
+            }
+
+            HKOCache.Entry<ArrayList<SevenDayForecast>> cached = HKOCache.get(DATA_TYPE_FND, LANG, HKOApiHelper::parseSevenDayForecast);
+            if (cached != null) {
+                HKOLog.d(TAG, "Seven day forecast from cache");
+                deliver(handle, target -> target.onSevenDayDataReceived(cached.value));
+                if (cached.isFresh()) {
+                    return;
+                }
+            }
+
+            fetchShared(DATA_TYPE_FND, LANG, HKOApiHelper::parseSevenDayForecast, handle, result -> {
+                if (result.error != null) {
+                    HKOLog.e(TAG, "Failed to fetch seven day forecast", result.error);
+                    if (cached == null) {
+                        deliver(handle, target -> target.onError("Unable to obtain seven-day forecast data: " + result.error.getMessage()));
+                    }
+                    return;
+                }
+                if (result.parseError != null) {
+                    HKOLog.e(TAG, "Error parsing seven day forecast", result.parseError);
+                    if (cached == null) {
+                        deliver(handle, target -> target.onError("Failed to parse the seven day forecast data: " + result.parseError.getMessage()));
+                    }
+                    return;
+                }
+                if (!result.isSuccessful()) {
+                    HKOLog.w(TAG, "Seven day forecast API failed with code: " + result.code);
+                    if (cached == null) {
+                        deliver(handle, target -> target.onError("API request failed: " + result.code));
+                    }
+                    return;
+                }
+
+                deliver(handle, target -> target.onSevenDayDataReceived(result.value));
+            });
+        });
+        return handle;
+    }
+
+    // Number of days decoded from fnd, the rest of the 9-day forecast is not read
+    private static final int FORECAST_DAYS = 7;
+
+    private static final String[] FND_FIELDS = {"weatherForecast"};
+    private static final String[] FORECAST_DAY_FIELDS = {
+            "forecastDate", "week", "forecastWeather", "forecastWind",
+            "forecastMaxtemp", "forecastMintemp", "forecastMaxrh", "forecastMinrh",
+            "ForecastIcon", "PSR"
+    };
+    private static final String[] VALUE_FIELDS = {"value"};
+
+    // Decode fnd straight into SevenDayForecast, stops reading once FORECAST_DAYS are decoded
+    public static ArrayList<SevenDayForecast> parseSevenDayForecast(Reader body) throws IOException, JSONException {
+        ArrayList<SevenDayForecast> forecasts = new ArrayList<>(FORECAST_DAYS);
+        HKOJsonReader reader = HKOJsonReader.obtain(body);
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.selectName(FND_FIELDS) != 0 || reader.peek() != HKOJsonReader.BEGIN_ARRAY) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginArray();
+                while (reader.hasNext() && forecasts.size() < FORECAST_DAYS) {
+                    forecasts.add(parseForecastDay(reader));
+                }
+                // Enough days decoded, the rest of the payload is not needed
+                return forecasts;
+            }
+            return forecasts;
+        } finally {
+            reader.recycle();
+        }
+    }
+
+    private static SevenDayForecast parseForecastDay(HKOJsonReader reader) throws IOException, JSONException {
+        SevenDayForecast forecast = new SevenDayForecast();
+        forecast.date = "";
+        forecast.dayOfWeek = "";
+        forecast.weather = "";
+        forecast.windInfo = "";
+        forecast.iconCode = 50;
+        forecast.rainProbability = "高";
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(FORECAST_DAY_FIELDS)) {
+                case 0: forecast.date = reader.nextString(""); break;
+                case 1: forecast.dayOfWeek = reader.nextString(""); break;
+                case 2: forecast.weather = reader.nextString(""); break;
+                case 3: forecast.windInfo = reader.nextString(""); break;
+                case 4: forecast.maxTemp = parseNestedValue(reader); break;
+                case 5: forecast.minTemp = parseNestedValue(reader); break;
+                case 6: forecast.maxHumidity = parseNestedValue(reader); break;
+                case 7: forecast.minHumidity = parseNestedValue(reader); break;
+                case 8: forecast.iconCode = reader.nextInt(50); break;
+                case 9: forecast.rainProbability = reader.nextString("高"); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        forecast.render();
+        return forecast;
+    }
+
+    // Read the "value" of objects like {"value": 30, "unit": "C"}
+    private static int parseNestedValue(HKOJsonReader reader) throws IOException, JSONException {
+        if (reader.peek() != HKOJsonReader.BEGIN_OBJECT) {
+            reader.skipValue();
+            return 0;
+        }
+
+        int value = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.selectName(VALUE_FIELDS) == 0) {
+                value = reader.nextInt(0);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+
+    // ==================== GeneralSituation Related ====================
+
+    public interface GeneralSituationCallback {
+        void onGeneralSituationReceived(String generalSituation);
+        void onError(String error);
+    }
+
+    // flw is shared with the MainActivity request, see fetchShared
+    public static RequestHandle<GeneralSituationCallback> getGeneralSituation(GeneralSituationCallback callback) {
+        RequestHandle<GeneralSituationCallback> handle = new RequestHandle<>(callback);
+        HKOCache.execute(() -> {
+            if (handle.isCancelled()) {
+                return;
+            }
+
+            HKOCache.Entry<String> cached = HKOCache.get(DATA_TYPE_FLW, LANG, HKOApiHelper::parseGeneralSituationText);
+            if (cached != null) {
+                deliverGeneralSituation(cached.value, handle);
+                if (cached.isFresh()) {
+                    return;
+                }
+            }
+
+            fetchShared(DATA_TYPE_FLW, LANG, HKOApiHelper::parseGeneralSituationText, handle, result -> {
+                if (result.error != null) {
+                    HKOLog.e(TAG, "Failed to get general situation", result.error);
+                    if (cached == null) {
+                        deliver(handle, target -> target.onError("Failed to get general situation: " + result.error.getMessage()));
+                    }
+                    return;
+                }
+                if (result.parseError != null) {
+                    HKOLog.e(TAG, "Error parsing general situation", result.parseError);
+                    if (cached == null) {
+                        deliver(handle, target -> target.onError("Failed to parse weather overview: " + result.parseError.getMessage()));
+                    }
+                    return;
+                }
+                if (!result.isSuccessful()) {
+                    if (cached == null) {
+                        deliver(handle, target -> target.onError("天氣概況API失敗: " + result.code));
+                    }
+                    return;
+                }
+
+                deliverGeneralSituation(result.value, handle);
+            });
+        });
+        return handle;
+    }
+
+    private static void deliverGeneralSituation(String value, RequestHandle<GeneralSituationCallback> handle) {
+        final String generalSituation;
+        if (value != null) {
+            generalSituation = value;
+            HKOLog.d(TAG, "Got generalSituation from API");
+        } else {
+            HKOLog.w(TAG, "No generalSituation found in API response");
+            generalSituation = "No weather information available";
+        }
+
+        deliver(handle, target -> target.onGeneralSituationReceived(generalSituation));
+    }
+
+    // Pull generalSituation out of a flw response, null if it is missing
+    public static String parseGeneralSituationText(Reader body) throws IOException, JSONException {
+        JSONObject flwData = new JSONObject(readFully(body));
+        if (flwData.has("generalSituation")) {
+            return flwData.getString("generalSituation");
+        }
+        return null;
+    }
+
+    // ==================== Fetch Pipeline ====================
+
+    // Turns a response body into a model, runs on the parse executor (or the cache executor for disk hits)
+    // The body is read as a stream, parsers only read as much as they need
+    public interface BodyParser<T> {
+        T parse(Reader body) throws IOException, JSONException;
+    }
+
+    // Result of one request, either the parsed value or the reason it failed
+    private static class FetchResult<T> {
+        public T value;
+        public int code;
+        public IOException error;
+        public JSONException parseError;
+        public boolean notModified;
+
+        public boolean isSuccessful() {
+            return error == null && parseError == null && code >= 200 && code < 300;
+        }
+
+        public static <T> FetchResult<T> fromCache(T value) {
+            FetchResult<T> result = new FetchResult<>();
+            result.value = value;
+            result.code = 200;
+            return result;
+        }
+    }
+
+    private interface FetchCallback<T> {
+        void onComplete(FetchResult<T> result);
+    }
+
+    private interface JoinCallback {
+        void onComplete(FetchResult<?>[] results);
+    }
+
+    // Waits for several requests that were started together and calls back after the last one finishes
+    private static class FetchJoin {
+        private final FetchResult<?>[] results;
+        private final AtomicInteger pending;
+        private final JoinCallback callback;
+
+        public FetchJoin(int legs, JoinCallback callback) {
+            this.results = new FetchResult<?>[legs];
+            this.pending = new AtomicInteger(legs);
+            this.callback = callback;
+        }
+
+        public <T> FetchCallback<T> leg(int index) {
+            return result -> {
+                results[index] = result;
+                if (pending.decrementAndGet() == 0) {
+                    callback.onComplete(results);
+                }
+            };
+        }
+    }
+
+    private static String buildUrl(String dataType, String lang) {
+        return baseUrl + "?dataType=" + dataType + "&lang=" + lang;
+    }
+
+    // Download and parse one dataType. The payload and the model are stored in HKOCache
+    // Runs as a conditional GET when an earlier response had validators, see Conditional Requests
+    // Cancelling the handle cancels the call, the callback then sees an IOException
+    private static <T> void fetch(String dataType, String lang, BodyParser<T> parser,
+                                  RequestHandle<?> handle, FetchCallback<T> callback) {
+        final String url = buildUrl(dataType, lang);
+        final Validator validator = getValidator(url);
+
+        HKOTransport.Request request = validator != null
+                ? new HKOTransport.Request(url, dataType, validator.etag, validator.lastModified)
+                : new HKOTransport.Request(url, dataType, null, null);
+
+        final long fetchStart = System.nanoTime();
+        HKOTransport.Call httpCall = transport.enqueue(request, new HKOTransport.Callback() {
+            @Override
+            public void onFailure(IOException e) {
+                // A cancelled call is not a failure of the network
+                if (!handle.isCancelled()) {
+                    HKOMetrics.count(HKOMetrics.Counter.FAILURE, dataType);
+                }
+                FetchResult<T> result = new FetchResult<>();
+                result.error = e;
+                callback.onComplete(result);
+            }
+
+            // I/O stage, on the transport thread: status and validators, the body is left on the connection
+            // and streamed by the parse stage
+            @Override
+            @SuppressWarnings("unchecked")
+            public void onResponse(HKOTransport.Response response) {
+                HKOMetrics.record(HKOMetrics.Stage.FETCH, dataType, fetchStart);
+                FetchResult<T> result = new FetchResult<>();
+                result.code = response.code;
+
+                if (response.code == 304 && validator != null) {
+                    // Nothing new was published, reuse the model parsed last time
+                    HKOLog.d(TAG, "Not modified: {}", dataType);
+                    HKOMetrics.count(HKOMetrics.Counter.NOT_MODIFIED, dataType);
+                    result.value = (T) validator.value;
+                    result.notModified = true;
+                    result.code = 200;
+                    HKOCache.touch(dataType, lang);
+                }
+
+                if (response.body == null || result.notModified) {
+                    if (!result.notModified) {
+                        HKOMetrics.count(HKOMetrics.Counter.HTTP_ERROR, dataType);
+                    }
+                    response.close();
+                    callback.onComplete(result);
+                    return;
+                }
+
+                boolean queued = executeParse(() -> {
+                    parse(dataType, lang, parser, response, handle, result);
+                    if (result.isSuccessful()) {
+                        putValidator(url, response.etag, response.lastModified, result.value);
+                    }
+                    callback.onComplete(result);
+                });
+                if (!queued) {
+                    // Parse queue full, fail the request rather than parse on the transport thread
+                    HKOMetrics.count(HKOMetrics.Counter.PARSE_REJECTED, dataType);
+                    response.close();
+                    result.error = new IOException("Too many responses waiting to be parsed");
+                    callback.onComplete(result);
+                }
+            }
+        });
+        handle.onCancel(httpCall::cancel);
+    }
+
+    // Parse stage, on the parse executor
+    // The parser reads the response straight off the connection while the recorder copies it to the
+    // disk cache, the payload is never held in memory as a whole. Closing the recorder releases the connection
+    private static <T> void parse(String dataType, String lang, BodyParser<T> parser, HKOTransport.Response response,
+                                  RequestHandle<?> handle, FetchResult<T> result) {
+        if (handle.isCancelled()) {
+            response.close();
+            result.error = new IOException("Canceled");
+            return;
+        }
+
+        long parseStart = System.nanoTime();
+        try (HKOCache.PayloadRecorder body = HKOCache.record(dataType, lang, response.body)) {
+            result.value = parser.parse(body);
+            body.commit(result.value);
+            HKOMetrics.record(HKOMetrics.Stage.PARSE, dataType, parseStart);
+        } catch (IOException e) {
+            result.error = e;
+        } catch (JSONException e) {
+            result.parseError = e;
+            HKOMetrics.count(HKOMetrics.Counter.PARSE_ERROR, dataType);
+        }
+    }
+
+    // ==================== Execution Model ====================
+
+    // Network I/O runs on the transport's threads, parsing on a small pool of its own,
+    // callbacks on the callback executor (the main thread in the app)
+    private static final int PARSE_THREADS = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, 4));
+    // Past this many waiting parses a new response is failed, it is never parsed on the transport thread
+    private static final int PARSE_QUEUE_CAPACITY = 32;
+
+    private static final AtomicInteger parseThreadCount = new AtomicInteger();
+    private static final AtomicInteger parseQueuePeak = new AtomicInteger();
+    private static final AtomicLong parseTasksRun = new AtomicLong();
+    private static final AtomicLong parseTasksRejected = new AtomicLong();
+
+    private static final ThreadPoolExecutor parseExecutor = new ThreadPoolExecutor(
+            PARSE_THREADS, PARSE_THREADS, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(PARSE_QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "hko-parse-" + parseThreadCount.incrementAndGet());
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    static {
+        parseExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    private static volatile Executor callbackExecutor = Runnable::run;
+
+    // False if the queue is full and the task was not taken
+    private static boolean executeParse(Runnable task) {
+        try {
+            parseExecutor.execute(() -> {
+                parseTasksRun.incrementAndGet();
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            parseTasksRejected.incrementAndGet();
+            HKOLog.w(TAG, "Parse queue full (" + PARSE_QUEUE_CAPACITY + "), failing the request");
+            return false;
+        }
+
+        int depth = parseExecutor.getQueue().size();
+        int peak;
+        while (depth > (peak = parseQueuePeak.get()) && !parseQueuePeak.compareAndSet(peak, depth)) {
+            // Retry until the peak is at least this depth
+        }
+        return true;
+    }
+
+    // Parse tasks waiting for a thread right now
+    public static int getParseQueueDepth() {
+        return parseExecutor.getQueue().size();
+    }
+
+    // Deepest the parse queue has been since start
+    public static int getParseQueuePeak() {
+        return parseQueuePeak.get();
+    }
+
+    public static long getParseTasksRun() {
+        return parseTasksRun.get();
+    }
+
+    // Responses failed because PARSE_QUEUE_CAPACITY parses were already waiting
+    public static long getParseTasksRejected() {
+        return parseTasksRejected.get();
+    }
+
+    // ==================== Conditional Requests ====================
+
+    // ETag / Last-Modified of the last full response for a URL, and the model parsed from it
+    private static class Validator {
+        public String etag;
+        public String lastModified;
+        public Object value;
+    }
+
+    private static final Map<String, Validator> validators = new HashMap<>();
+
+    private static Validator getValidator(String url) {
+        synchronized (validators) {
+            return validators.get(url);
+        }
+    }
+
+    private static void putValidator(String url, String etag, String lastModified, Object value) {
+        synchronized (validators) {
+            if (etag == null && lastModified == null) {
+                validators.remove(url);
+                return;
+            }
+
+            Validator validator = new Validator();
+            validator.etag = etag;
+            validator.lastModified = lastModified;
+            validator.value = value;
+            validators.put(url, validator);
+        }
+    }
+
+    // ==================== Request Coalescing ====================
+
+    // A successful result younger than this is handed to new callers without another request
+    private static final long SHARED_RESULT_MAX_AGE_MS = 60 * 1000;
+
+    // One network call per dataType/lang, every caller in the meantime waits on it
+    // The call has its own handle, it is only cancelled once every waiter has been cancelled
+    private static class SharedRequest<T> {
+        public final ArrayList<FetchCallback<T>> waiters = new ArrayList<>();
+        public FetchResult<T> result;
+        public long completedAt;
+        public boolean inFlight;
+        public RequestHandle<Void> handle;
+    }
+
+    private static final Map<String, SharedRequest<?>> sharedRequests = new HashMap<>();
+
+    // Fetch and parse dataType once, concurrent and recent callers share the same parsed result
+    @SuppressWarnings("unchecked")
+    private static <T> void fetchShared(String dataType, String lang, BodyParser<T> parser,
+                                        RequestHandle<?> handle, FetchCallback<T> callback) {
+        String key = dataType + "|" + lang;
+        FetchResult<T> recent = null;
+        boolean startRequest = false;
+        SharedRequest<T> shared;
+
+        synchronized (sharedRequests) {
+            shared = (SharedRequest<T>) sharedRequests.get(key);
+            if (shared == null) {
+                shared = new SharedRequest<>();
+                sharedRequests.put(key, shared);
+            }
+
+            if (!shared.inFlight && shared.result != null
+                    && System.currentTimeMillis() - shared.completedAt < SHARED_RESULT_MAX_AGE_MS) {
+                recent = shared.result;
+            } else {
+                shared.waiters.add(callback);
+                if (!shared.inFlight) {
+                    shared.inFlight = true;
+                    shared.handle = new RequestHandle<>(null);
+                    startRequest = true;
+                }
+            }
+        }
+
+        if (recent != null) {
+            HKOLog.d(TAG, "Reusing recent {} result", key);
+            HKOMetrics.count(HKOMetrics.Counter.SHARED, dataType);
+            callback.onComplete(recent);
+            return;
+        }
+
+        final SharedRequest<T> request = shared;
+        handle.onCancel(() -> {
+            RequestHandle<Void> orphaned = null;
+            synchronized (sharedRequests) {
+                if (request.waiters.remove(callback) && request.waiters.isEmpty() && request.inFlight) {
+                    orphaned = request.handle;
+                }
+            }
+            if (orphaned != null) {
+                HKOLog.d(TAG, "Every caller of {} is gone, cancelling it", key);
+                orphaned.cancel();
+            }
+        });
+
+        if (!startRequest) {
+            HKOLog.d(TAG, "Attached to in-flight {} request", key);
+            HKOMetrics.count(HKOMetrics.Counter.SHARED, dataType);
+            return;
+        }
+
+        fetch(dataType, lang, parser, request.handle, result -> {
+            ArrayList<FetchCallback<T>> waiters;
+            synchronized (sharedRequests) {
+                waiters = new ArrayList<>(request.waiters);
+                request.waiters.clear();
+                request.inFlight = false;
+                if (result.isSuccessful()) {
+                    request.result = result;
+                    request.completedAt = System.currentTimeMillis();
+                }
+            }
+
+            for (FetchCallback<T> waiter : waiters) {
+                waiter.onComplete(result);
+            }
+        });
+    }
+
+    // ==================== Request Handles ====================
+
+    // Returned by the get* methods so an Activity can drop a request it no longer needs
+    // cancel() stops the network calls, skips parsing that has not started and drops every pending callback.
+    // The callback reference is released too, so a destroyed Activity is not kept alive by the request
+    public static class RequestHandle<C> {
+        private volatile C callback;
+        private volatile boolean cancelled;
+        private final ArrayList<Runnable> cancelActions = new ArrayList<>();
+
+        RequestHandle(C callback) {
+            this.callback = callback;
+        }
+
+        public void cancel() {
+            ArrayList<Runnable> actions;
+            synchronized (cancelActions) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                callback = null;
+                actions = new ArrayList<>(cancelActions);
+                cancelActions.clear();
+            }
+            for (Runnable action : actions) {
+                action.run();
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        // Stop calling back but let the request finish, its result still lands in the cache
+        // Used by SplashActivity so the prefetch outlives it
+        public void detach() {
+            callback = null;
+        }
+
+        // Run the action on cancel(), or straight away if the handle is already cancelled
+        void onCancel(Runnable action) {
+            synchronized (cancelActions) {
+                if (!cancelled) {
+                    cancelActions.add(action);
+                    return;
+                }
+            }
+            action.run();
+        }
+
+        C getCallback() {
+            return callback;
+        }
+    }
+
+    private interface Delivery<C> {
+        void deliver(C callback);
+    }
+
+    // Post to the callback on the callback executor, unless the handle is cancelled before it runs
+    private static <C> void deliver(RequestHandle<C> handle, Delivery<C> delivery) {
+        callbackExecutor.execute(() -> {
+            C callback = handle.getCallback();
+            if (callback != null) {
+                delivery.deliver(callback);
+            }
+        });
+    }
+
+    // ==================== Tools ====================
+
+    // Read a whole body into a String, for the parsers that still build a JSONObject
+    private static String readFully(Reader reader) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[4096];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            builder.append(buffer, 0, read);
+        }
+        return builder.toString();
+    }
+
+    public static String getHKOOfficialIconUrl(int iconCode) {
+        if (iconCode > 0) {
+            return "https://www.weather.gov.hk/images/HKOWxIconOutline/pic" + iconCode + ".png";
+        }
+        return "https://www.hko.gov.hk/images/wxicon/pic50.png";
+    }
+
+}
\ No newline at end of file
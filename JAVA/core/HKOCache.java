@@ -0,0 +1,252 @@
+package com.example.project.core;
+
+import org.json.JSONException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Two level cache for HKO responses
+// Memory: parsed models (LRU), Disk: raw payloads that survive a process restart
+public class HKOCache {
+
+    private static final String TAG = "HKOCache";
+    private static final String CACHE_DIR_NAME = "hko";
+    private static final int MEMORY_CACHE_ENTRIES = 16;
+
+    // How long a payload stays fresh, following how often HKO publishes each dataType
+    private static final long RHRREAD_TTL_MS = 60 * 60 * 1000L;      // Updated hourly
+    private static final long FLW_TTL_MS = 60 * 60 * 1000L;          // Updated several times a day
+    private static final long FND_TTL_MS = 12 * 60 * 60 * 1000L;     // Updated twice daily
+    private static final long DEFAULT_TTL_MS = 30 * 60 * 1000L;
+
+    // A cached model and the time its payload was downloaded
+    public static class Entry<T> {
+        public final T value;
+        public final long fetchedAt;
+        public final long ttl;
+
+        public Entry(T value, long fetchedAt, long ttl) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+            this.ttl = ttl;
+        }
+
+        public boolean isFresh() {
+            return System.currentTimeMillis() - fetchedAt < ttl;
+        }
+    }
+
+    // Access ordered, so the eldest entry is the least recently used one. Guarded by itself
+    private static final Map<String, Entry<?>> memoryCache = new LinkedHashMap<String, Entry<?>>(MEMORY_CACHE_ENTRIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry<?>> eldest) {
+            return size() > MEMORY_CACHE_ENTRIES;
+        }
+    };
+    private static final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private static volatile File cacheDir;
+
+    // Keep payloads in an "hko" directory under baseDir, e.g. the app's cache directory
+    public static synchronized void init(File baseDir) {
+        if (cacheDir != null) {
+            return;
+        }
+
+        File dir = new File(baseDir, CACHE_DIR_NAME);
+        if (!dir.exists() && !dir.mkdirs()) {
+            HKOLog.w(TAG, "Unable to create cache directory, disk cache disabled");
+            return;
+        }
+        cacheDir = dir;
+    }
+
+    // Run cache lookups off the main thread, disk reads can take a few milliseconds
+    public static void execute(Runnable task) {
+        diskExecutor.execute(task);
+    }
+
+    // Look in memory first, then on disk. Returns null if nothing is cached
+    @SuppressWarnings("unchecked")
+    public static <T> Entry<T> get(String dataType, String lang, HKOApiHelper.BodyParser<T> parser) {
+        String key = buildKey(dataType, lang);
+
+        Entry<T> entry = (Entry<T>) memoryGet(key);
+        if (entry != null) {
+            HKOLog.d(TAG, "Memory hit: {}", key);
+            HKOMetrics.count(HKOMetrics.Counter.MEMORY_HIT, dataType);
+            return entry;
+        }
+
+        File file = getFile(key);
+        if (file == null || !file.exists()) {
+            HKOMetrics.count(HKOMetrics.Counter.CACHE_MISS, dataType);
+            return null;
+        }
+
+        long readStart = System.nanoTime();
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            entry = new Entry<>(parser.parse(reader), file.lastModified(), getTtl(dataType));
+            memoryPut(key, entry);
+            HKOLog.d(TAG, "Disk hit: {}", key);
+            HKOMetrics.record(HKOMetrics.Stage.CACHE_READ, dataType, readStart);
+            HKOMetrics.count(HKOMetrics.Counter.DISK_HIT, dataType);
+            return entry;
+        } catch (IOException | JSONException e) {
+            HKOLog.w(TAG, "Dropping unreadable cache file " + key, e);
+            HKOMetrics.count(HKOMetrics.Counter.CACHE_MISS, dataType);
+            file.delete();
+            return null;
+        }
+    }
+
+    // Wrap a response stream so the payload is written to disk while it is being parsed
+    public static PayloadRecorder record(String dataType, String lang, Reader source) {
+        return new PayloadRecorder(dataType, lang, source);
+    }
+
+    // Reader that copies everything read through it into a temp file
+    // commit() stores the model in memory and moves the file into place, close() without commit() throws it away
+    public static class PayloadRecorder extends Reader {
+        private final String key;
+        private final long ttl;
+        private final Reader source;
+        private final File file;
+        private final File tempFile;
+        private Writer writer;
+
+        private PayloadRecorder(String dataType, String lang, Reader source) {
+            this.key = buildKey(dataType, lang);
+            this.ttl = getTtl(dataType);
+            this.source = source;
+            this.file = getFile(key);
+            this.tempFile = file != null ? new File(file.getPath() + ".tmp") : null;
+
+            if (tempFile != null) {
+                try {
+                    writer = new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    HKOLog.w(TAG, "Failed to open cache file " + key, e);
+                }
+            }
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int read = source.read(buffer, offset, length);
+            if (read > 0 && writer != null) {
+                try {
+                    writer.write(buffer, offset, read);
+                } catch (IOException e) {
+                    // A failed cache write must not fail the request
+                    HKOLog.w(TAG, "Failed to write cache file " + key, e);
+                    discardFile();
+                }
+            }
+            return read;
+        }
+
+        public <T> void commit(T value) throws IOException {
+            long now = System.currentTimeMillis();
+            memoryPut(key, new Entry<>(value, now, ttl));
+
+            if (writer == null) {
+                return;
+            }
+
+            // The parser may stop early, read the rest so the saved payload is complete
+            char[] rest = new char[4096];
+            while (read(rest, 0, rest.length) != -1) {
+                // Copied to the file by read()
+            }
+            if (writer == null) {
+                return;
+            }
+
+            writer.close();
+            writer = null;
+            if (!tempFile.renameTo(file)) {
+                HKOLog.w(TAG, "Failed to replace cache file " + key);
+                tempFile.delete();
+                return;
+            }
+            file.setLastModified(now);
+        }
+
+        @Override
+        public void close() throws IOException {
+            discardFile();
+            source.close();
+        }
+
+        private void discardFile() {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // Deleted below anyway
+            }
+            writer = null;
+            tempFile.delete();
+        }
+    }
+
+    // The server said the payload is unchanged (304), start its TTL again without rewriting it
+    @SuppressWarnings("unchecked")
+    public static void touch(String dataType, String lang) {
+        String key = buildKey(dataType, lang);
+        long now = System.currentTimeMillis();
+
+        Entry<Object> entry = (Entry<Object>) memoryGet(key);
+        if (entry != null) {
+            memoryPut(key, new Entry<>(entry.value, now, entry.ttl));
+        }
+
+        File file = getFile(key);
+        if (file != null && file.exists()) {
+            file.setLastModified(now);
+        }
+    }
+
+    private static Entry<?> memoryGet(String key) {
+        synchronized (memoryCache) {
+            return memoryCache.get(key);
+        }
+    }
+
+    private static void memoryPut(String key, Entry<?> entry) {
+        synchronized (memoryCache) {
+            memoryCache.put(key, entry);
+        }
+    }
+
+    private static long getTtl(String dataType) {
+        switch (dataType) {
+            case "rhrread": return RHRREAD_TTL_MS;
+            case "flw": return FLW_TTL_MS;
+            case "fnd": return FND_TTL_MS;
+            default: return DEFAULT_TTL_MS;
+        }
+    }
+
+    private static String buildKey(String dataType, String lang) {
+        return dataType + "_" + lang;
+    }
+
+    private static File getFile(String key) {
+        File dir = cacheDir;
+        return dir != null ? new File(dir, key + ".json") : null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,549 @@
+package com.example.project.core;
+
+import org.json.JSONException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+// Pull based JSON reader for HKO payloads
+// Reads straight from the response stream, field names are matched with selectName
+// against a fixed list so they never become Strings, and unwanted values are skipped
+// without building anything
+public class HKOJsonReader implements Closeable {
+
+    public static final int BEGIN_OBJECT = 1;
+    public static final int END_OBJECT = 2;
+    public static final int BEGIN_ARRAY = 3;
+    public static final int END_ARRAY = 4;
+    public static final int NAME = 5;
+    public static final int STRING = 6;
+    public static final int NUMBER = 7;
+    public static final int BOOLEAN = 8;
+    public static final int NULL = 9;
+    public static final int END_DOCUMENT = 10;
+
+    // Where the reader is inside the document
+    private static final int SCOPE_EMPTY_ARRAY = 1;
+    private static final int SCOPE_NONEMPTY_ARRAY = 2;
+    private static final int SCOPE_EMPTY_OBJECT = 3;
+    private static final int SCOPE_DANGLING_NAME = 4;
+    private static final int SCOPE_NONEMPTY_OBJECT = 5;
+    private static final int SCOPE_EMPTY_DOCUMENT = 6;
+    private static final int SCOPE_NONEMPTY_DOCUMENT = 7;
+
+    // Exact powers of ten for the number fast path
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private Reader in;
+    private final char[] buffer = new char[4096];
+    private int pos;
+    private int limit;
+
+    // Holds the current name / string / number while it is being matched or converted
+    private char[] scratch = new char[256];
+    private int scratchLength;
+
+    private int[] stack = new int[32];
+    private int stackSize;
+    private int peeked;
+
+    // One reader per thread, so the buffers are reused from one parse to the next
+    private static final ThreadLocal<HKOJsonReader> threadReader = new ThreadLocal<>();
+
+    public HKOJsonReader(Reader in) {
+        reset(in);
+    }
+
+    // Get this thread's reader pointed at in, call recycle() when done
+    public static HKOJsonReader obtain(Reader in) {
+        HKOJsonReader reader = threadReader.get();
+        if (reader == null) {
+            reader = new HKOJsonReader(in);
+            threadReader.set(reader);
+        } else {
+            reader.reset(in);
+        }
+        return reader;
+    }
+
+    // Drop the stream without closing it, the owner of the stream closes it
+    public void recycle() {
+        in = null;
+    }
+
+    // Start reading another document, keeps the buffers
+    public void reset(Reader in) {
+        this.in = in;
+        this.pos = 0;
+        this.limit = 0;
+        this.stackSize = 0;
+        this.peeked = 0;
+        push(SCOPE_EMPTY_DOCUMENT);
+    }
+
+    public void beginObject() throws IOException, JSONException {
+        expect(BEGIN_OBJECT);
+        push(SCOPE_EMPTY_OBJECT);
+    }
+
+    public void endObject() throws IOException, JSONException {
+        expect(END_OBJECT);
+        stackSize--;
+    }
+
+    public void beginArray() throws IOException, JSONException {
+        expect(BEGIN_ARRAY);
+        push(SCOPE_EMPTY_ARRAY);
+    }
+
+    public void endArray() throws IOException, JSONException {
+        expect(END_ARRAY);
+        stackSize--;
+    }
+
+    public boolean hasNext() throws IOException, JSONException {
+        int token = peek();
+        return token != END_OBJECT && token != END_ARRAY && token != END_DOCUMENT;
+    }
+
+    public int peek() throws IOException, JSONException {
+        if (peeked == 0) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    // Read the next field name and return its index in names, or -1 if it is not listed
+    public int selectName(String[] names) throws IOException, JSONException {
+        expect(NAME);
+        readString();
+        for (int i = 0; i < names.length; i++) {
+            if (scratchEquals(names[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String nextName() throws IOException, JSONException {
+        expect(NAME);
+        readString();
+        return new String(scratch, 0, scratchLength);
+    }
+
+    // Read a string value, or the text of a number / boolean like org.json optString
+    public String nextString(String fallback) throws IOException, JSONException {
+        switch (peek()) {
+            case STRING:
+                peeked = 0;
+                readString();
+                return new String(scratch, 0, scratchLength);
+            case NUMBER:
+            case BOOLEAN:
+                peeked = 0;
+                readLiteral();
+                return new String(scratch, 0, scratchLength);
+            default:
+                skipValue();
+                return fallback;
+        }
+    }
+
+    // True if the next string value equals expected, without turning it into a String
+    public boolean nextStringEquals(String expected) throws IOException, JSONException {
+        if (peek() != STRING) {
+            skipValue();
+            return false;
+        }
+        peeked = 0;
+        readString();
+        return scratchEquals(expected);
+    }
+
+    // Read a string value and return its index in sortedValues (binary search), or -1
+    // Nothing is allocated, call lastString() if the text is needed for a miss
+    public int nextStringIndex(String[] sortedValues) throws IOException, JSONException {
+        if (peek() != STRING) {
+            skipValue();
+            scratchLength = 0;
+            return -1;
+        }
+        peeked = 0;
+        readString();
+
+        int low = 0;
+        int high = sortedValues.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compare = compareScratch(sortedValues[middle]);
+            if (compare < 0) {
+                high = middle - 1;
+            } else if (compare > 0) {
+                low = middle + 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // The text of the last string, name or number that was read
+    public String lastString() {
+        return new String(scratch, 0, scratchLength);
+    }
+
+    // Read a number (or a numeric string) like org.json optDouble
+    public double nextDouble(double fallback) throws IOException, JSONException {
+        int token = peek();
+        if (token == NUMBER) {
+            peeked = 0;
+            readLiteral();
+        } else if (token == STRING) {
+            peeked = 0;
+            readString();
+        } else {
+            skipValue();
+            return fallback;
+        }
+        return parseScratchDouble(fallback);
+    }
+
+    public int nextInt(int fallback) throws IOException, JSONException {
+        double value = nextDouble(Double.NaN);
+        if (Double.isNaN(value)) {
+            return fallback;
+        }
+        return (int) value;
+    }
+
+    // Skip the next value, including everything nested inside it
+    public void skipValue() throws IOException, JSONException {
+        int depth = 0;
+        do {
+            int token = peek();
+            peeked = 0;
+            switch (token) {
+                case BEGIN_OBJECT:
+                    push(SCOPE_EMPTY_OBJECT);
+                    depth++;
+                    break;
+                case BEGIN_ARRAY:
+                    push(SCOPE_EMPTY_ARRAY);
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    stackSize--;
+                    depth--;
+                    break;
+                case NAME:
+                case STRING:
+                    skipString();
+                    break;
+                case NUMBER:
+                case BOOLEAN:
+                case NULL:
+                    readLiteral();
+                    break;
+                default:
+                    throw syntaxError("Unexpected end of document");
+            }
+        } while (depth > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+            in = null;
+        }
+    }
+
+    // ==================== Tokenizer ====================
+
+    private int doPeek() throws IOException, JSONException {
+        int scope = stack[stackSize - 1];
+        int c;
+
+        switch (scope) {
+            case SCOPE_EMPTY_ARRAY:
+                stack[stackSize - 1] = SCOPE_NONEMPTY_ARRAY;
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return END_ARRAY;
+                }
+                pos--;
+                break;
+
+            case SCOPE_NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return END_ARRAY;
+                }
+                if (c != ',') {
+                    throw syntaxError("Expected , or ]");
+                }
+                break;
+
+            case SCOPE_EMPTY_OBJECT:
+            case SCOPE_NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    return END_OBJECT;
+                }
+                if (scope == SCOPE_NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntaxError("Expected , or }");
+                    }
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw syntaxError("Expected name");
+                }
+                stack[stackSize - 1] = SCOPE_DANGLING_NAME;
+                return NAME;
+
+            case SCOPE_DANGLING_NAME:
+                stack[stackSize - 1] = SCOPE_NONEMPTY_OBJECT;
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("Expected :");
+                }
+                break;
+
+            case SCOPE_EMPTY_DOCUMENT:
+                stack[stackSize - 1] = SCOPE_NONEMPTY_DOCUMENT;
+                break;
+
+            default:
+                if (nextNonWhitespaceOrEnd() == -1) {
+                    return END_DOCUMENT;
+                }
+                throw syntaxError("Expected end of document");
+        }
+
+        c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                return BEGIN_OBJECT;
+            case '[':
+                return BEGIN_ARRAY;
+            case '"':
+                return STRING;
+            case 't':
+            case 'f':
+                pos--;
+                return BOOLEAN;
+            case 'n':
+                pos--;
+                return NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    pos--;
+                    return NUMBER;
+                }
+                throw syntaxError("Unexpected character " + (char) c);
+        }
+    }
+
+    private void expect(int token) throws IOException, JSONException {
+        if (peek() != token) {
+            throw syntaxError("Expected token " + token + " but was " + peeked);
+        }
+        peeked = 0;
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            int[] newStack = new int[stackSize * 2];
+            System.arraycopy(stack, 0, newStack, 0, stackSize);
+            stack = newStack;
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private boolean fill() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        pos = 0;
+        limit = read;
+        return true;
+    }
+
+    private int nextNonWhitespace() throws IOException, JSONException {
+        int c = nextNonWhitespaceOrEnd();
+        if (c == -1) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return c;
+    }
+
+    private int nextNonWhitespaceOrEnd() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char c = buffer[pos++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+    }
+
+    private char nextChar() throws IOException, JSONException {
+        if (pos == limit && !fill()) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return buffer[pos++];
+    }
+
+    // Read the rest of a quoted string (opening quote already consumed) into scratch
+    private void readString() throws IOException, JSONException {
+        scratchLength = 0;
+        while (true) {
+            char c = nextChar();
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                c = readEscape();
+            }
+            appendScratch(c);
+        }
+    }
+
+    private void skipString() throws IOException, JSONException {
+        while (true) {
+            char c = nextChar();
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                readEscape();
+            }
+        }
+    }
+
+    private char readEscape() throws IOException, JSONException {
+        char c = nextChar();
+        switch (c) {
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(nextChar(), 16);
+                    if (digit < 0) {
+                        throw syntaxError("Invalid unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            case 't': return '\t';
+            case 'b': return '\b';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 'f': return '\f';
+            default: return c;
+        }
+    }
+
+    // Read an unquoted number / true / false / null into scratch
+    private void readLiteral() throws IOException {
+        scratchLength = 0;
+        while (true) {
+            if (pos == limit && !fill()) {
+                return;
+            }
+            char c = buffer[pos];
+            if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == ':') {
+                return;
+            }
+            appendScratch(c);
+            pos++;
+        }
+    }
+
+    private void appendScratch(char c) {
+        if (scratchLength == scratch.length) {
+            char[] newScratch = new char[scratchLength * 2];
+            System.arraycopy(scratch, 0, newScratch, 0, scratchLength);
+            scratch = newScratch;
+        }
+        scratch[scratchLength++] = c;
+    }
+
+    private boolean scratchEquals(String value) {
+        if (value.length() != scratchLength) {
+            return false;
+        }
+        for (int i = 0; i < scratchLength; i++) {
+            if (scratch[i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same ordering as String.compareTo, with the scratch text on the left
+    private int compareScratch(String value) {
+        int length = Math.min(scratchLength, value.length());
+        for (int i = 0; i < length; i++) {
+            char c = scratch[i];
+            char other = value.charAt(i);
+            if (c != other) {
+                return c - other;
+            }
+        }
+        return scratchLength - value.length();
+    }
+
+    // Plain decimals like "27" or "-3.5" are converted without a String
+    // The result is the same as Double.parseDouble: both parts are exact, so the division rounds once
+    private double parseScratchDouble(double fallback) {
+        boolean negative = false;
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        boolean simple = scratchLength > 0;
+
+        for (int i = 0; i < scratchLength && simple; i++) {
+            char c = scratch[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if (c == '-' && i == 0) {
+                negative = true;
+            } else {
+                simple = false;
+            }
+        }
+
+        if (simple && digits > 0 && digits <= 15 && fractionDigits < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+
+        try {
+            return Double.parseDouble(new String(scratch, 0, scratchLength));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at character " + pos);
+    }
+}
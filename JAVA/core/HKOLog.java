@@ -0,0 +1,163 @@
+package com.example.project.core;
+
+// Logging for the core classes, which cannot use android.util.Log
+// The app installs a Logger that forwards to Logcat (see HKOAndroid), on a plain JVM everything
+// at or above the minimum level goes to stderr
+//
+// Messages take their values as arguments and "{}" placeholders instead of being concatenated
+// by the caller, so a disabled level costs one field read and a branch: nothing is formatted,
+// and the fixed-arity overloads take double and int as they are, so nothing is boxed either.
+// Release builds set the minimum level to WARN, which takes debug logging out of the parse loops
+public final class HKOLog {
+
+    // Same values as android.util.Log
+    public static final int DEBUG = 3;
+    public static final int WARN = 5;
+    public static final int ERROR = 6;
+
+    public interface Logger {
+        void d(String tag, String message);
+        void w(String tag, String message, Throwable error);
+        void e(String tag, String message, Throwable error);
+    }
+
+    public static final Logger STDERR = new Logger() {
+        @Override
+        public void d(String tag, String message) {
+            print("D", tag, message, null);
+        }
+
+        @Override
+        public void w(String tag, String message, Throwable error) {
+            print("W", tag, message, error);
+        }
+
+        @Override
+        public void e(String tag, String message, Throwable error) {
+            print("E", tag, message, error);
+        }
+
+        private void print(String level, String tag, String message, Throwable error) {
+            System.err.println(level + "/" + tag + ": " + message);
+            if (error != null) {
+                error.printStackTrace();
+            }
+        }
+    };
+
+    private static volatile Logger logger = STDERR;
+
+    // Not volatile, it is read on every log call. Set once at startup (HKOAndroid.init, a benchmark's setup)
+    // before the executors that log are handed any work
+    private static int minLevel = WARN;
+
+    private HKOLog() {
+    }
+
+    public static void setLogger(Logger newLogger) {
+        logger = newLogger != null ? newLogger : STDERR;
+    }
+
+    public static void setMinLevel(int level) {
+        minLevel = level;
+    }
+
+    public static boolean isDebugEnabled() {
+        return minLevel <= DEBUG;
+    }
+
+    public static void d(String tag, String message) {
+        if (minLevel <= DEBUG) {
+            logger.d(tag, message);
+        }
+    }
+
+    public static void d(String tag, String pattern, Object a) {
+        if (minLevel <= DEBUG) {
+            logger.d(tag, format(pattern, String.valueOf(a)));
+        }
+    }
+
+    public static void d(String tag, String pattern, int a) {
+        if (minLevel <= DEBUG) {
+            logger.d(tag, format(pattern, String.valueOf(a)));
+        }
+    }
+
+    public static void d(String tag, String pattern, double a) {
+        if (minLevel <= DEBUG) {
+            logger.d(tag, format(pattern, String.valueOf(a)));
+        }
+    }
+
+    public static void d(String tag, String pattern, Object a, Object b) {
+        if (minLevel <= DEBUG) {
+            logger.d(tag, format(pattern, String.valueOf(a), String.valueOf(b)));
+        }
+    }
+
+    public static void d(String tag, String pattern, Object a, long b) {
+        if (minLevel <= DEBUG) {
+            logger.d(tag, format(pattern, String.valueOf(a), String.valueOf(b)));
+        }
+    }
+
+    public static void d(String tag, String pattern, Object a, double b) {
+        if (minLevel <= DEBUG) {
+            logger.d(tag, format(pattern, String.valueOf(a), String.valueOf(b)));
+        }
+    }
+
+    public static void d(String tag, String pattern, double a, double b) {
+        if (minLevel <= DEBUG) {
+            logger.d(tag, format(pattern, String.valueOf(a), String.valueOf(b)));
+        }
+    }
+
+    public static void d(String tag, String pattern, Object a, Object b, double c) {
+        if (minLevel <= DEBUG) {
+            logger.d(tag, format(pattern, String.valueOf(a), String.valueOf(b), String.valueOf(c)));
+        }
+    }
+
+    // Warnings and errors stay on in release, and are rare, so they only come in the plain form
+
+    public static void w(String tag, String message) {
+        if (minLevel <= WARN) {
+            logger.w(tag, message, null);
+        }
+    }
+
+    public static void w(String tag, String message, Throwable error) {
+        if (minLevel <= WARN) {
+            logger.w(tag, message, error);
+        }
+    }
+
+    public static void e(String tag, String message) {
+        if (minLevel <= ERROR) {
+            logger.e(tag, message, null);
+        }
+    }
+
+    public static void e(String tag, String message, Throwable error) {
+        if (minLevel <= ERROR) {
+            logger.e(tag, message, error);
+        }
+    }
+
+    // Replace each "{}" in pattern with the next value, extra placeholders are left as they are
+    private static String format(String pattern, String... values) {
+        StringBuilder out = new StringBuilder(pattern.length() + 32);
+        int start = 0;
+        for (String value : values) {
+            int placeholder = pattern.indexOf("{}", start);
+            if (placeholder < 0) {
+                break;
+            }
+            out.append(pattern, start, placeholder).append(value);
+            start = placeholder + 2;
+        }
+        return out.append(pattern, start, pattern.length()).toString();
+    }
+}
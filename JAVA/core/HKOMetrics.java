@@ -0,0 +1,360 @@
+package com.example.project.core;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Where the time goes between asking HKO for data and showing it: a latency histogram per stage and
+// dataType, and counters for cache hits, revalidations, retries and failures. Always on, a record
+// is a few atomic adds and never locks or allocates once the (stage, key) histogram exists.
+// Read with dump() (dumpsys, see HKOAndroid.dumpMetrics) or toJson() to collect from devices
+public final class HKOMetrics {
+
+    public enum Stage {
+        DNS,        // OkHttp DNS lookup
+        TTFB,       // Call start to response headers: DNS, connect, TLS and server time
+        DOWNLOAD,   // Response body read, streamed into the parser so it overlaps PARSE
+        FETCH,      // Whole network call as HKOApiHelper sees it, enqueue to headers, retries included
+        ATTEMPT,    // One try inside FETCH that got a response, see ResilientTransport
+        PARSE,      // Response body to model on the parse executor, reading the body off the connection
+        CACHE_READ, // Disk cache hit, read and parse
+        MAP,        // GPS fix to district
+        RENDER,     // Delivered data to views updated, on the main thread
+        ICON        // Picasso download of a weather icon missing from the atlas
+    }
+
+    public enum Counter {
+        MEMORY_HIT,
+        DISK_HIT,
+        CACHE_MISS,
+        NOT_MODIFIED,  // 304, the model parsed last time was reused
+        SHARED,        // Served by another caller's request, in flight or recent
+        RETRY,
+        HEDGE,         // A second try started because the first was slow
+        TIMEOUT,       // A try cancelled by its endpoint timeout
+        SHORT_CIRCUIT, // Failed straight away, the circuit breaker is open
+        CIRCUIT_OPENED,
+        FAILURE,       // Transport error, no response
+        HTTP_ERROR,    // Response outside 2xx
+        PARSE_ERROR,
+        PARSE_REJECTED // Parse queue full, the response was failed unparsed
+    }
+
+    // Keys for the stages that are not about a dataType
+    public static final String KEY_ICON = "icon";
+    public static final String KEY_POLYGON = "polygon";   // GPS fix resolved by DistrictBoundaries
+    public static final String KEY_CENTROID = "centroid"; // Nearest district centroid fallback
+
+    private static final Map<Stage, ConcurrentHashMap<String, Histogram>> histograms = new EnumMap<>(Stage.class);
+    private static final Map<Counter, ConcurrentHashMap<String, AtomicLong>> counters = new EnumMap<>(Counter.class);
+    private static volatile long startedAt = System.currentTimeMillis();
+
+    static {
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new ConcurrentHashMap<>());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new ConcurrentHashMap<>());
+        }
+    }
+
+    private HKOMetrics() {
+    }
+
+    // Record the time since startNanos, a System.nanoTime() taken when the stage started
+    public static void record(Stage stage, String key, long startNanos) {
+        histogram(stage, key).record((System.nanoTime() - startNanos) / 1000);
+    }
+
+    public static void count(Counter counter, String key) {
+        ConcurrentHashMap<String, AtomicLong> byKey = counters.get(counter);
+        AtomicLong value = byKey.get(key);
+        if (value == null) {
+            AtomicLong created = new AtomicLong();
+            value = byKey.putIfAbsent(key, created);
+            if (value == null) {
+                value = created;
+            }
+        }
+        value.incrementAndGet();
+    }
+
+    public static Histogram histogram(Stage stage, String key) {
+        ConcurrentHashMap<String, Histogram> byKey = histograms.get(stage);
+        Histogram histogram = byKey.get(key);
+        if (histogram == null) {
+            Histogram created = new Histogram();
+            histogram = byKey.putIfAbsent(key, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        return histogram;
+    }
+
+    public static long getCount(Counter counter, String key) {
+        AtomicLong value = counters.get(counter).get(key);
+        return value != null ? value.get() : 0;
+    }
+
+    // Start a new collection period, recorders running meanwhile may land on either side
+    public static void reset() {
+        for (ConcurrentHashMap<String, Histogram> byKey : histograms.values()) {
+            for (Histogram histogram : byKey.values()) {
+                histogram.reset();
+            }
+        }
+        for (ConcurrentHashMap<String, AtomicLong> byKey : counters.values()) {
+            for (AtomicLong value : byKey.values()) {
+                value.set(0);
+            }
+        }
+        startedAt = System.currentTimeMillis();
+    }
+
+    // ==================== Histogram ====================
+
+    // Log-linear buckets in microseconds, laid out like HdrHistogram with 4 sub-bucket bits:
+    // values below 16 µs get a bucket each, every power of two above is split into 16, so a bucket
+    // is never wider than 1/16 of its values. Anything past ~35 minutes lands in the last bucket
+    public static final class Histogram {
+        static final int SUB_BUCKET_BITS = 4;
+        static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        static final long MAX_MICROS = (1L << 31) - 1;
+        static final int BUCKETS = bucketOf(MAX_MICROS) + 1;
+
+        // The count is the sum of the buckets, it is not kept separately
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong sumMicros = new AtomicLong();
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        Histogram() {
+        }
+
+        public void record(long micros) {
+            if (micros < 0) {
+                micros = 0;
+            } else if (micros > MAX_MICROS) {
+                micros = MAX_MICROS;
+            }
+            buckets.incrementAndGet(bucketOf(micros));
+            sumMicros.addAndGet(micros);
+
+            long max;
+            while (micros > (max = maxMicros.get()) && !maxMicros.compareAndSet(max, micros)) {
+                // Retry until the max is at least this value
+            }
+        }
+
+        static int bucketOf(long micros) {
+            if (micros < SUB_BUCKETS) {
+                return (int) micros;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        // Smallest value that lands in the bucket
+        static long lowerBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        }
+
+        // Largest value that lands in the bucket
+        static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            return lowerBound(bucket) + (1L << (bucket / SUB_BUCKETS - 1)) - 1;
+        }
+
+        // Same as snapshot().percentileMicros(percentile) without the copy, for the request path
+        public long percentileMicros(double percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += buckets.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), maxMicros.get());
+                }
+            }
+            return maxMicros.get();
+        }
+
+        public long count() {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += buckets.get(i);
+            }
+            return total;
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            sumMicros.set(0);
+            maxMicros.set(0);
+        }
+
+        // Copy of the counts. Bucket by bucket, so a record that races the copy may be half in it
+        public Snapshot snapshot() {
+            long[] copy = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                copy[i] = buckets.get(i);
+                total += copy[i];
+            }
+            return new Snapshot(copy, total, sumMicros.get(), maxMicros.get());
+        }
+    }
+
+    public static final class Snapshot {
+        public final long count;
+        public final long sumMicros;
+        public final long maxMicros;
+        private final long[] buckets;
+
+        Snapshot(long[] buckets, long count, long sumMicros, long maxMicros) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sumMicros = sumMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        public long meanMicros() {
+            return count > 0 ? sumMicros / count : 0;
+        }
+
+        // Value at or below which the given percentage of records fall, as the top of its bucket
+        public long percentileMicros(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(Histogram.upperBound(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+    }
+
+    // ==================== Export ====================
+
+    // Human readable, one line per histogram and counter, times in milliseconds
+    public static void dump(PrintWriter writer) {
+        writer.println("HKO metrics, " + (System.currentTimeMillis() - startedAt) / 1000 + " s collected");
+        writer.println(String.format("  %-10s %-10s %7s %9s %9s %9s %9s %9s",
+                "stage", "key", "count", "mean", "p50", "p90", "p99", "max"));
+        for (Stage stage : Stage.values()) {
+            for (String key : sortedKeys(histograms.get(stage))) {
+                Snapshot s = histograms.get(stage).get(key).snapshot();
+                if (s.count == 0) {
+                    continue;
+                }
+                writer.println(String.format("  %-10s %-10s %7d %9.2f %9.2f %9.2f %9.2f %9.2f",
+                        stage, key, s.count, s.meanMicros() / 1000.0,
+                        s.percentileMicros(50) / 1000.0, s.percentileMicros(90) / 1000.0,
+                        s.percentileMicros(99) / 1000.0, s.maxMicros / 1000.0));
+            }
+        }
+
+        for (Counter counter : Counter.values()) {
+            for (String key : sortedKeys(counters.get(counter))) {
+                long value = counters.get(counter).get(key).get();
+                if (value != 0) {
+                    writer.println(String.format("  %-14s %-10s %7d", counter, key, value));
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    // One JSON object for collection. Histograms carry their non-empty buckets as
+    // [lowest µs, count] pairs, so exports from several devices can be added together
+    public static String toJson() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\"version\":1,\"unit\":\"us\",\"subBucketBits\":").append(Histogram.SUB_BUCKET_BITS)
+                .append(",\"startedAt\":").append(startedAt)
+                .append(",\"exportedAt\":").append(System.currentTimeMillis())
+                .append(",\"histograms\":[");
+
+        boolean first = true;
+        for (Stage stage : Stage.values()) {
+            for (String key : sortedKeys(histograms.get(stage))) {
+                Snapshot s = histograms.get(stage).get(key).snapshot();
+                if (s.count == 0) {
+                    continue;
+                }
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                json.append("{\"stage\":\"").append(stage).append("\",\"key\":\"").append(key)
+                        .append("\",\"count\":").append(s.count)
+                        .append(",\"sum\":").append(s.sumMicros)
+                        .append(",\"max\":").append(s.maxMicros)
+                        .append(",\"p50\":").append(s.percentileMicros(50))
+                        .append(",\"p90\":").append(s.percentileMicros(90))
+                        .append(",\"p99\":").append(s.percentileMicros(99))
+                        .append(",\"buckets\":[");
+                boolean firstBucket = true;
+                for (int i = 0; i < s.buckets.length; i++) {
+                    if (s.buckets[i] == 0) {
+                        continue;
+                    }
+                    if (!firstBucket) {
+                        json.append(',');
+                    }
+                    firstBucket = false;
+                    json.append('[').append(Histogram.lowerBound(i)).append(',').append(s.buckets[i]).append(']');
+                }
+                json.append("]}");
+            }
+        }
+
+        json.append("],\"counters\":[");
+        first = true;
+        for (Counter counter : Counter.values()) {
+            for (String key : sortedKeys(counters.get(counter))) {
+                long value = counters.get(counter).get(key).get();
+                if (value == 0) {
+                    continue;
+                }
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                json.append("{\"counter\":\"").append(counter).append("\",\"key\":\"").append(key)
+                        .append("\",\"value\":").append(value).append('}');
+            }
+        }
+        return json.append("]}").toString();
+    }
+
+    private static ArrayList<String> sortedKeys(Map<String, ?> byKey) {
+        ArrayList<String> keys = new ArrayList<>(byKey.keySet());
+        Collections.sort(keys);
+        return keys;
+    }
+}
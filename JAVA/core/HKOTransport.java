@@ -0,0 +1,71 @@
+package com.example.project.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+// How HKOApiHelper talks HTTP. OkHttpTransport is the default, tests and benchmarks can install
+// one that answers from memory or points at a local mock server
+public interface HKOTransport {
+
+    // A GET, with the validators of the last full response when there is one
+    // endpoint names what is asked for (the dataType), ResilientTransport picks its timeouts by it
+    class Request {
+        public final String url;
+        public final String endpoint;
+        public final String ifNoneMatch;
+        public final String ifModifiedSince;
+
+        public Request(String url, String ifNoneMatch, String ifModifiedSince) {
+            this(url, null, ifNoneMatch, ifModifiedSince);
+        }
+
+        public Request(String url, String endpoint, String ifNoneMatch, String ifModifiedSince) {
+            this.url = url;
+            this.endpoint = endpoint;
+            this.ifNoneMatch = ifNoneMatch;
+            this.ifModifiedSince = ifModifiedSince;
+        }
+    }
+
+    // Status and validators. body streams a 2xx response off the connection and is null otherwise,
+    // whoever ends up holding the Response closes it, read or not, so the connection is released
+    class Response implements Closeable {
+        public final int code;
+        public final Reader body;
+        public final String etag;
+        public final String lastModified;
+
+        public Response(int code, Reader body, String etag, String lastModified) {
+            this.code = code;
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public void close() {
+            if (body == null) {
+                return;
+            }
+            try {
+                body.close();
+            } catch (IOException ignored) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    interface Callback {
+        // Called on a transport thread, never on the caller's
+        void onResponse(Response response);
+        void onFailure(IOException error);
+    }
+
+    interface Call {
+        // After cancel() the callback gets an IOException, unless it already ran
+        void cancel();
+    }
+
+    Call enqueue(Request request, Callback callback);
+}
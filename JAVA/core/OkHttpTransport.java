@@ -0,0 +1,115 @@
+package com.example.project.core;
+
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Default HKOTransport. Connecting and reading the headers run on OkHttp's dispatcher threads,
+// the body is streamed by whichever thread parses it
+public class OkHttpTransport implements HKOTransport {
+
+    private final OkHttpClient client;
+
+    // Backstops until the headers arrive, ResilientTransport gives each try a shorter timeout by endpoint.
+    // The read timeout is the only one on the body, which is read after ResilientTransport has delivered
+    public OkHttpTransport() {
+        this(new OkHttpClient.Builder()
+                .connectTimeout(10, TimeUnit.SECONDS)
+                .readTimeout(10, TimeUnit.SECONDS)
+                .eventListenerFactory(StageListener::new)
+                .build());
+    }
+
+    public OkHttpTransport(OkHttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public Call enqueue(Request request, Callback callback) {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(request.url);
+        if (request.ifNoneMatch != null) {
+            builder.header("If-None-Match", request.ifNoneMatch);
+        }
+        if (request.ifModifiedSince != null) {
+            builder.header("If-Modified-Since", request.ifModifiedSince);
+        }
+
+        okhttp3.Call httpCall = client.newCall(builder.build());
+        httpCall.enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(okhttp3.Call call, IOException e) {
+                callback.onFailure(e);
+            }
+
+            @Override
+            public void onResponse(okhttp3.Call call, okhttp3.Response response) {
+                if (call.isCanceled()) {
+                    // Cancelled after the headers arrived, do not download the body
+                    response.close();
+                    callback.onFailure(new IOException("Canceled"));
+                    return;
+                }
+
+                // The body is left on the connection and read by the parser, closing the reader releases it
+                Reader body = null;
+                if (response.isSuccessful()) {
+                    body = response.body().charStream();
+                } else {
+                    response.close();
+                }
+                callback.onResponse(new Response(response.code(), body, response.header("ETag"), response.header("Last-Modified")));
+            }
+        });
+        return httpCall::cancel;
+    }
+
+    // Splits each call into the DNS, TTFB and DOWNLOAD stages of HKOMetrics, keyed by the dataType
+    // query parameter. The body is read while it is parsed, so DOWNLOAD includes the parse. One instance per call,
+    // OkHttp calls it from one thread at a time
+    private static class StageListener extends EventListener {
+        private final String key;
+        private long callStart;
+        private long dnsStart;
+        private long bodyStart;
+
+        StageListener(okhttp3.Call call) {
+            String dataType = call.request().url().queryParameter("dataType");
+            this.key = dataType != null ? dataType : "other";
+        }
+
+        @Override
+        public void callStart(okhttp3.Call call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(okhttp3.Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(okhttp3.Call call, String domainName, List<InetAddress> addresses) {
+            HKOMetrics.record(HKOMetrics.Stage.DNS, key, dnsStart);
+        }
+
+        @Override
+        public void responseHeadersStart(okhttp3.Call call) {
+            HKOMetrics.record(HKOMetrics.Stage.TTFB, key, callStart);
+        }
+
+        @Override
+        public void responseBodyStart(okhttp3.Call call) {
+            bodyStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(okhttp3.Call call, long byteCount) {
+            HKOMetrics.record(HKOMetrics.Stage.DOWNLOAD, key, bodyStart);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.project.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Decides when each HKO dataType should be polled again. Plain Java with an injectable clock,
+// RefreshScheduler feeds it the device conditions and does the actual waking up
+public class RefreshPolicy {
+
+    public interface Clock {
+        long now();
+    }
+
+    public static final Clock SYSTEM_CLOCK = System::currentTimeMillis;
+
+    // Normal polling cadence, roughly how often HKO publishes each dataType
+    private static final long RHRREAD_INTERVAL_MS = 15 * 60 * 1000L;
+    private static final long FLW_INTERVAL_MS = 30 * 60 * 1000L;
+    private static final long FND_INTERVAL_MS = 3 * 60 * 60 * 1000L;
+    private static final long DEFAULT_INTERVAL_MS = 30 * 60 * 1000L;
+
+    // During a rainstorm or tropical cyclone signal rhrread and flw change much faster
+    private static final long WARNING_RHRREAD_INTERVAL_MS = 5 * 60 * 1000L;
+    private static final long WARNING_FLW_INTERVAL_MS = 10 * 60 * 1000L;
+
+    private static final int METERED_FACTOR = 2;
+    private static final int LOW_BATTERY_FACTOR = 3;
+
+    // Anything due within this window of the next wakeup is refreshed in the same wakeup
+    private static final long BATCH_WINDOW_MS = 3 * 60 * 1000L;
+
+    // A failed refresh is tried again after this, doubling with each failure in a row up to the
+    // normal interval. Matches how long ResilientTransport keeps its circuit open
+    private static final long FAILURE_RETRY_MS = 30 * 1000L;
+
+    private final Clock clock;
+    private final Map<String, Long> lastChecked = new HashMap<>();
+    private final Map<String, Integer> failures = new HashMap<>();
+
+    private boolean warningActive;
+    private boolean metered;
+    private boolean lowBattery;
+
+    public RefreshPolicy(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void setConditions(boolean warningActive, boolean metered, boolean lowBattery) {
+        this.warningActive = warningActive;
+        this.metered = metered;
+        this.lowBattery = lowBattery;
+    }
+
+    // Start tracking a dataType, counting it as checked now if it has never been checked
+    public void track(String dataType) {
+        if (!lastChecked.containsKey(dataType)) {
+            lastChecked.put(dataType, clock.now());
+        }
+    }
+
+    public void markChecked(String dataType) {
+        lastChecked.put(dataType, clock.now());
+    }
+
+    // The refresh of dataType failed, make it due again soon instead of after a full interval
+    public void markFailed(String dataType) {
+        Integer previous = failures.get(dataType);
+        int count = previous != null ? previous + 1 : 1;
+        failures.put(dataType, count);
+
+        long interval = getInterval(dataType);
+        long retry = Math.min(interval, FAILURE_RETRY_MS << Math.min(count - 1, 10));
+        lastChecked.put(dataType, clock.now() - interval + retry);
+    }
+
+    public void markSucceeded(String dataType) {
+        failures.remove(dataType);
+    }
+
+    public long getInterval(String dataType) {
+        long interval;
+        switch (dataType) {
+            case "rhrread": interval = warningActive ? WARNING_RHRREAD_INTERVAL_MS : RHRREAD_INTERVAL_MS; break;
+            case "flw": interval = warningActive ? WARNING_FLW_INTERVAL_MS : FLW_INTERVAL_MS; break;
+            case "fnd": interval = FND_INTERVAL_MS; break;
+            default: interval = DEFAULT_INTERVAL_MS; break;
+        }
+
+        // A warning keeps its cadence on a metered network, only a low battery slows it down
+        if (metered && !warningActive) {
+            interval *= METERED_FACTOR;
+        }
+        if (lowBattery) {
+            interval *= LOW_BATTERY_FACTOR;
+        }
+        return interval;
+    }
+
+    // Time until the next tracked dataType is due, 0 if one is due already, -1 if nothing is tracked
+    public long getDelayUntilNextDue() {
+        long now = clock.now();
+        long earliest = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> entry : lastChecked.entrySet()) {
+            earliest = Math.min(earliest, entry.getValue() + getInterval(entry.getKey()));
+        }
+        if (earliest == Long.MAX_VALUE) {
+            return -1;
+        }
+        return Math.max(0, earliest - now);
+    }
+
+    // The dataTypes to refresh now: everything due, plus anything due within the batch window.
+    // They are marked as checked
+    public List<String> takeDue() {
+        long now = clock.now();
+        List<String> due = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : lastChecked.entrySet()) {
+            if (entry.getValue() + getInterval(entry.getKey()) <= now + BATCH_WINDOW_MS) {
+                due.add(entry.getKey());
+            }
+        }
+
+        // A dataType only inside the window rides along only if something is actually due
+        boolean anyDue = false;
+        for (String dataType : due) {
+            if (lastChecked.get(dataType) + getInterval(dataType) <= now) {
+                anyDue = true;
+                break;
+            }
+        }
+        if (!anyDue) {
+            due.clear();
+            return due;
+        }
+
+        for (String dataType : due) {
+            lastChecked.put(dataType, now);
+        }
+        return due;
+    }
+}
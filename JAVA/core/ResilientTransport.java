@@ -0,0 +1,463 @@
+package com.example.project.core;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Wraps the transport HKOApiHelper uses so a slow or failing HKO costs seconds, not minutes:
+//  - each try has a timeout picked by endpoint (the dataType) until its headers arrive, instead of OkHttp's
+//    connect and read timeouts. The body is streamed into the parser afterwards, under the read timeout
+//  - failed tries are retried a bounded number of times, with jittered exponential backoff
+//  - a try slower than the endpoint usually is gets a hedge, a second identical GET, first answer wins
+//  - after several failures in a row a circuit breaker fails requests straight away for a while,
+//    HKOApiHelper then keeps showing what it has cached instead of waiting on HKO
+// Every HKO request is a GET, so repeating one is always safe
+public class ResilientTransport implements HKOTransport {
+
+    private static final String TAG = "ResilientTransport";
+
+    // Per try timeout, number of tries (hedges included) and how long before a hedge is sent
+    // rhrread and flw are a few KB, fnd is the largest payload
+    public static class Policy {
+        public final long timeoutMs;
+        public final int maxAttempts;
+        public final long hedgeAfterMs; // 0 never hedges
+
+        public Policy(long timeoutMs, int maxAttempts, long hedgeAfterMs) {
+            this.timeoutMs = timeoutMs;
+            this.maxAttempts = Math.max(1, maxAttempts);
+            this.hedgeAfterMs = hedgeAfterMs;
+        }
+    }
+
+    private static final Policy RHRREAD_POLICY = new Policy(6000, 3, 2000);
+    private static final Policy FLW_POLICY = new Policy(6000, 3, 2000);
+    private static final Policy FND_POLICY = new Policy(8000, 3, 3000);
+    private static final Policy DEFAULT_POLICY = new Policy(10000, 2, 0);
+
+    // Once an endpoint has this many timed tries the hedge is sent at their p90 instead of the fixed delay,
+    // but never sooner than MIN_HEDGE_MS
+    private static final int HEDGE_MIN_SAMPLES = 20;
+    private static final double HEDGE_PERCENTILE = 90;
+    private static final long MIN_HEDGE_MS = 500;
+
+    // Retry n waits between half and all of BACKOFF_BASE_MS * 2^(n-1), at most BACKOFF_MAX_MS
+    private static final long BACKOFF_BASE_MS = 500;
+    private static final long BACKOFF_MAX_MS = 4000;
+
+    // Consecutive failed tries that open the circuit, and how long it stays open before a probe.
+    // Each failed probe doubles the open time up to MAX_OPEN_MS
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long OPEN_MS = 30 * 1000L;
+    private static final long MAX_OPEN_MS = 5 * 60 * 1000L;
+
+    private static final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "hko-resilience");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    private final HKOTransport delegate;
+    private final Map<String, Policy> policies = new HashMap<>();
+    private final CircuitBreaker breaker = new CircuitBreaker();
+
+    public ResilientTransport(HKOTransport delegate) {
+        this.delegate = delegate;
+        policies.put(HKOApiHelper.DATA_TYPE_RHRREAD, RHRREAD_POLICY);
+        policies.put(HKOApiHelper.DATA_TYPE_FLW, FLW_POLICY);
+        policies.put(HKOApiHelper.DATA_TYPE_FND, FND_POLICY);
+    }
+
+    // Replace the policy of one endpoint, e.g. shorter timeouts against a local mock server
+    public synchronized void setPolicy(String endpoint, Policy policy) {
+        policies.put(endpoint, policy);
+    }
+
+    public void setCircuitBreaker(int failureThreshold, long openMs) {
+        breaker.configure(failureThreshold, openMs);
+    }
+
+    public boolean isCircuitOpen() {
+        return breaker.isOpen();
+    }
+
+    private synchronized Policy getPolicy(String endpoint) {
+        Policy policy = endpoint != null ? policies.get(endpoint) : null;
+        return policy != null ? policy : DEFAULT_POLICY;
+    }
+
+    @Override
+    public Call enqueue(Request request, Callback callback) {
+        Exchange exchange = new Exchange(request, callback, getPolicy(request.endpoint));
+        exchange.start();
+        return exchange::cancel;
+    }
+
+    // What the callback gets while the circuit is open
+    public static class CircuitOpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public CircuitOpenException() {
+            super("HKO is not responding, not retrying for now");
+        }
+    }
+
+    // A try cancelled by its endpoint timeout
+    public static class AttemptTimeoutException extends InterruptedIOException {
+        private static final long serialVersionUID = 1L;
+
+        public AttemptTimeoutException(long timeoutMs) {
+            super("No response within " + timeoutMs + " ms");
+        }
+    }
+
+    // ==================== Exchange ====================
+
+    // One request as the caller sees it, made of one or more tries. Tries finish on transport threads,
+    // timers fire on the timer thread, so the state is guarded by the exchange
+    private class Exchange {
+        private final Request request;
+        private final Callback callback;
+        private final Policy policy;
+        private final String key;
+        private final ArrayList<Attempt> running = new ArrayList<>(2);
+        private int attempts;
+        private boolean finished;
+        private boolean hedged;
+        private ScheduledFuture<?> pendingRetry;
+
+        Exchange(Request request, Callback callback, Policy policy) {
+            this.request = request;
+            this.callback = callback;
+            this.policy = policy;
+            this.key = request.endpoint != null ? request.endpoint : "other";
+        }
+
+        void start() {
+            if (!breaker.allowRequest()) {
+                HKOMetrics.count(HKOMetrics.Counter.SHORT_CIRCUIT, key);
+                // Never call back on the caller's thread
+                timer.execute(() -> finish(null, new CircuitOpenException()));
+                return;
+            }
+            startAttempt();
+        }
+
+        private void startAttempt() {
+            Attempt attempt;
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                attempts++;
+                attempt = new Attempt(this);
+                running.add(attempt);
+            }
+
+            attempt.setCall(delegate.enqueue(request, attempt));
+
+            // Scheduled after the GET is on its way, a try that is already over just makes them no-ops
+            attempt.timeout = timer.schedule(() -> {
+                if (attempt.complete()) {
+                    HKOMetrics.count(HKOMetrics.Counter.TIMEOUT, key);
+                    attempt.cancelCall();
+                    onAttemptFailed(attempt, new AttemptTimeoutException(policy.timeoutMs));
+                }
+            }, policy.timeoutMs, TimeUnit.MILLISECONDS);
+
+            // No hedges while the circuit is probing HKO
+            long hedgeAfter = hedgeDelay();
+            synchronized (this) {
+                if (!hedged && hedgeAfter > 0 && attempts < policy.maxAttempts && !breaker.isOpen()) {
+                    hedged = true;
+                    attempt.hedge = timer.schedule(() -> {
+                        synchronized (this) {
+                            if (finished || !running.contains(attempt)) {
+                                return;
+                            }
+                        }
+                        HKOLog.d(TAG, "{} is slow, sending a hedge", key);
+                        HKOMetrics.count(HKOMetrics.Counter.HEDGE, key);
+                        startAttempt();
+                    }, hedgeAfter, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        // The fixed delay of the policy until there are enough timed tries, then their p90
+        private long hedgeDelay() {
+            if (policy.hedgeAfterMs <= 0) {
+                return 0;
+            }
+            HKOMetrics.Histogram timed = HKOMetrics.histogram(HKOMetrics.Stage.ATTEMPT, key);
+            if (timed.count() < HEDGE_MIN_SAMPLES) {
+                return policy.hedgeAfterMs;
+            }
+            long p90 = timed.percentileMicros(HEDGE_PERCENTILE) / 1000;
+            return Math.min(Math.max(p90, MIN_HEDGE_MS), policy.timeoutMs);
+        }
+
+        void onAttemptResponse(Attempt attempt, Response response) {
+            if (isRetryable(response.code)) {
+                breaker.onFailure();
+                onAttemptFailed(attempt, response, null);
+                return;
+            }
+
+            breaker.onSuccess();
+            HKOMetrics.record(HKOMetrics.Stage.ATTEMPT, key, attempt.startedAt);
+            finish(response, null);
+        }
+
+        void onAttemptFailed(Attempt attempt, IOException error) {
+            breaker.onFailure();
+            onAttemptFailed(attempt, null, error);
+        }
+
+        // A failed try: wait for the other one if a hedge is still running, else retry or give up
+        private void onAttemptFailed(Attempt attempt, Response response, IOException error) {
+            int tries;
+            synchronized (this) {
+                running.remove(attempt);
+                if (finished || !running.isEmpty()) {
+                    if (response != null) {
+                        response.close();
+                    }
+                    return;
+                }
+                tries = attempts;
+            }
+
+            if (tries >= policy.maxAttempts) {
+                finish(response, error);
+                return;
+            }
+            if (response != null) {
+                response.close();
+            }
+            if (!breaker.allowRequest()) {
+                HKOMetrics.count(HKOMetrics.Counter.SHORT_CIRCUIT, key);
+                finish(null, new CircuitOpenException());
+                return;
+            }
+
+            long delay = backoff(tries);
+            HKOLog.d(TAG, "Retrying {} in {} ms", key, delay);
+            HKOMetrics.count(HKOMetrics.Counter.RETRY, key);
+            synchronized (this) {
+                if (!finished) {
+                    pendingRetry = timer.schedule(this::startAttempt, delay, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        // Exactly one of response and error is delivered, once
+        private void finish(Response response, IOException error) {
+            if (!markFinished()) {
+                if (response != null) {
+                    response.close();
+                }
+                return;
+            }
+            if (response != null) {
+                callback.onResponse(response);
+            } else {
+                callback.onFailure(error != null ? error : new IOException("No response"));
+            }
+        }
+
+        // Cancelled by the caller, the tries it stops do not count against HKO
+        void cancel() {
+            if (markFinished()) {
+                timer.execute(() -> callback.onFailure(new IOException("Canceled")));
+            }
+        }
+
+        // False if the exchange was already finished. Otherwise stops the tries still running and a pending retry
+        private boolean markFinished() {
+            ArrayList<Attempt> losers;
+            synchronized (this) {
+                if (finished) {
+                    return false;
+                }
+                finished = true;
+                losers = new ArrayList<>(running);
+                running.clear();
+                if (pendingRetry != null) {
+                    pendingRetry.cancel(false);
+                }
+            }
+
+            for (Attempt loser : losers) {
+                if (loser.complete()) {
+                    loser.cancelCall();
+                }
+            }
+            return true;
+        }
+    }
+
+    // 5xx, 429 and 408 are worth another try, any other status is HKO's answer
+    private static boolean isRetryable(int code) {
+        return code >= 500 || code == 429 || code == 408;
+    }
+
+    // Equal jitter: never less than half the exponential step, so retries of many clients spread out
+    // without any of them retrying straight away
+    static long backoff(int retry) {
+        long step = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << Math.min(retry - 1, 16));
+        return step / 2 + ThreadLocalRandom.current().nextLong(step / 2 + 1);
+    }
+
+    // One GET to the delegate. Its outcome counts once, whichever of response, failure, timeout or
+    // losing to a hedge comes first
+    private static class Attempt implements Callback {
+        private final Exchange exchange;
+        private final long startedAt = System.nanoTime();
+        private boolean completed;
+        private boolean cancelRequested;
+        private Call call;
+        volatile ScheduledFuture<?> timeout;
+        volatile ScheduledFuture<?> hedge;
+
+        Attempt(Exchange exchange) {
+            this.exchange = exchange;
+        }
+
+        // The delegate's call can arrive after a timeout or a winning hedge already wanted it cancelled
+        synchronized void setCall(Call newCall) {
+            call = newCall;
+            if (cancelRequested) {
+                call.cancel();
+            }
+        }
+
+        synchronized void cancelCall() {
+            cancelRequested = true;
+            if (call != null) {
+                call.cancel();
+            }
+        }
+
+        // True for the first caller only, also stops the timers
+        synchronized boolean complete() {
+            if (completed) {
+                return false;
+            }
+            completed = true;
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            if (hedge != null) {
+                hedge.cancel(false);
+            }
+            return true;
+        }
+
+        @Override
+        public void onResponse(Response response) {
+            if (complete()) {
+                exchange.onAttemptResponse(this, response);
+            } else {
+                // Lost to a hedge or timed out, nobody reads this body
+                response.close();
+            }
+        }
+
+        @Override
+        public void onFailure(IOException error) {
+            if (complete()) {
+                exchange.onAttemptFailed(this, error);
+            }
+        }
+    }
+
+    // ==================== Circuit Breaker ====================
+
+    // Closed: everything goes through. Open: everything fails straight away until openMs has passed.
+    // Half open: one probe goes through, its outcome closes the circuit or opens it for longer
+    private static class CircuitBreaker {
+        private static final int CLOSED = 0;
+        private static final int OPEN = 1;
+        private static final int HALF_OPEN = 2;
+
+        private int failureThreshold = FAILURE_THRESHOLD;
+        private long baseOpenMs = OPEN_MS;
+
+        private int state = CLOSED;
+        private int consecutiveFailures;
+        private long openMs = OPEN_MS;
+        private long openedAt;
+        private long probeStartedAt;
+
+        synchronized void configure(int failureThreshold, long openMs) {
+            this.failureThreshold = Math.max(1, failureThreshold);
+            this.baseOpenMs = openMs;
+            this.openMs = openMs;
+        }
+
+        synchronized boolean isOpen() {
+            return state != CLOSED;
+        }
+
+        synchronized boolean allowRequest() {
+            long now = System.currentTimeMillis();
+            switch (state) {
+                case OPEN:
+                    if (now - openedAt < openMs) {
+                        return false;
+                    }
+                    HKOLog.d(TAG, "Circuit half open, probing HKO");
+                    state = HALF_OPEN;
+                    probeStartedAt = now;
+                    return true;
+                case HALF_OPEN:
+                    // Another probe only if the last one never reported back (its caller cancelled it)
+                    if (now - probeStartedAt < openMs) {
+                        return false;
+                    }
+                    probeStartedAt = now;
+                    return true;
+                default:
+                    return true;
+            }
+        }
+
+        synchronized void onSuccess() {
+            if (state != CLOSED) {
+                HKOLog.w(TAG, "HKO is answering again, circuit closed");
+            }
+            state = CLOSED;
+            consecutiveFailures = 0;
+            openMs = baseOpenMs;
+        }
+
+        synchronized void onFailure() {
+            if (state == HALF_OPEN) {
+                openMs = Math.min(openMs * 2, Math.max(MAX_OPEN_MS, baseOpenMs));
+                open();
+                return;
+            }
+            if (state == CLOSED && ++consecutiveFailures >= failureThreshold) {
+                open();
+            }
+        }
+
+        private void open() {
+            HKOLog.w(TAG, "HKO is failing, circuit open for " + openMs / 1000 + " s");
+            HKOMetrics.count(HKOMetrics.Counter.CIRCUIT_OPENED, "hko");
+            state = OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+}
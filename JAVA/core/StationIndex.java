@@ -0,0 +1,184 @@
+package com.example.project.core;
+
+import org.json.JSONException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// Which district each HKO place name belongs to
+// Built once and never changed, lookups are a binary search over the sorted place names
+// so the parse loop does not allocate. Loaded from the bundled hko_stations.txt asset,
+// new stations can be added there without touching the code
+public class StationIndex {
+
+    private static final String TAG = "StationIndex";
+    public static final String ASSET_NAME = "hko_stations.txt";
+
+    // Which rhrread readings a place name is used for
+    public static final int TEMPERATURE = 1;
+    public static final int RAINFALL = 2;
+    public static final int HUMIDITY = 4;
+
+    // Used when the asset is missing or unreadable, same format as hko_stations.txt
+    private static final String[] BUILT_IN = {
+            // Districts, used by rainfall and for direct temperature matches
+            "Central & Western District|Central & Western District|TR",
+            "Wan Chai|Wan Chai|TR",
+            "Eastern District|Eastern District|TR",
+            "Southern District|Southern District|TR",
+            "Yau Tsim Mong|Yau Tsim Mong|TR",
+            "Sham Shui Po|Sham Shui Po|TR",
+            "Kowloon City|Kowloon City|TR",
+            "Wong Tai Sin|Wong Tai Sin|TR",
+            "Kwun Tong|Kwun Tong|TR",
+            "Tsuen Wan|Tsuen Wan|TR",
+            "Tuen Mun|Tuen Mun|TR",
+            "Yuen Long|Yuen Long|TR",
+            "North District|North District|TR",
+            "Tai Po|Tai Po|TR",
+            "Sha Tin|Sha Tin|TR",
+            "Sai Kung|Sai Kung|TR",
+            "Kwai Tsing|Kwai Tsing|TR",
+            "Islands District|Islands District|TR",
+
+            // Hong Kong Island
+            "Hong Kong Observatory|Central & Western District|TH",
+            "Hong Kong Park|Central & Western District|T",
+            "Happy Valley|Wan Chai|T",
+            "Wong Chuk Hang|Southern District|T",
+            "Stanley|Southern District|T",
+
+            // Kowloon
+            "King's Park|Yau Tsim Mong|T",
+            "Kai Tak Runway Park|Kowloon City|T",
+            "Tseung Kwan O|Sai Kung|T",
+
+            // New Territories
+            "Tsuen Wan Ho Koon|Tsuen Wan|T",
+            "Tsuen Wan Shing Mun Valley|Tsuen Wan|T",
+            "Yuen Long Park|Yuen Long|T",
+            "Lau Fau Shan|Yuen Long|T",
+            "Ta Kwu Ling|North District|T",
+            "Tai Mei Tuk|Tai Po|T",
+            "Tsing Yi|Kwai Tsing|T",
+            "Shek Kong|Yuen Long|T",
+            "Chek Lap Kok|Islands District|T",
+            "Cheung Chau|Islands District|T"
+    };
+
+    private static volatile StationIndex current = fromLines(Arrays.asList(BUILT_IN));
+
+    // Sorted place names, with the district and readings of each at the same position
+    private final String[] places;
+    private final District[] districts;
+    private final int[] usage;
+
+    private StationIndex(String[] places, District[] districts, int[] usage) {
+        this.places = places;
+        this.districts = districts;
+        this.usage = usage;
+    }
+
+    public static StationIndex get() {
+        return current;
+    }
+
+    // Replace the built-in table with the bundled asset, keeps the built-in one on failure
+    public static void load(AssetSource assets) {
+        ArrayList<String> lines = new ArrayList<>();
+        try (InputStream in = assets.open(ASSET_NAME);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            HKOLog.w(TAG, "No station asset, using the built-in table", e);
+            return;
+        }
+
+        StationIndex index = fromLines(lines);
+        if (index.size() == 0) {
+            HKOLog.w(TAG, "Station asset is empty, using the built-in table");
+            return;
+        }
+        current = index;
+        HKOLog.d(TAG, "Loaded {} places from {}", index.size(), ASSET_NAME);
+    }
+
+    // Lines look like "place|district|TRH", blank lines and lines starting with # are ignored
+    private static StationIndex fromLines(Iterable<String> lines) {
+        ArrayList<String[]> entries = new ArrayList<>();
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] parts = line.split("\\|");
+            if (parts.length != 3) {
+                HKOLog.w(TAG, "Ignoring station line: " + line);
+                continue;
+            }
+            if (District.fromName(parts[1].trim()) == null) {
+                HKOLog.w(TAG, "Ignoring station with unknown district: " + line);
+                continue;
+            }
+            entries.add(new String[]{parts[0].trim(), parts[1].trim(), parts[2].trim()});
+        }
+
+        entries.sort((a, b) -> a[0].compareTo(b[0]));
+
+        int size = entries.size();
+        String[] places = new String[size];
+        District[] districts = new District[size];
+        int[] usage = new int[size];
+        for (int i = 0; i < size; i++) {
+            String[] entry = entries.get(i);
+            places[i] = entry[0];
+            districts[i] = District.fromName(entry[1]);
+            usage[i] = parseUsage(entry[2]);
+        }
+        return new StationIndex(places, districts, usage);
+    }
+
+    private static int parseUsage(String letters) {
+        int usage = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            switch (letters.charAt(i)) {
+                case 'T': usage |= TEMPERATURE; break;
+                case 'R': usage |= RAINFALL; break;
+                case 'H': usage |= HUMIDITY; break;
+                default: break;
+            }
+        }
+        return usage;
+    }
+
+    // Read the next string from the reader and return its entry, or -1 if the place is unknown
+    public int readPlace(HKOJsonReader reader) throws IOException, JSONException {
+        return reader.nextStringIndex(places);
+    }
+
+    // True if the entry can be used for the given kind of reading
+    public boolean isUsedFor(int entry, int reading) {
+        return entry >= 0 && (usage[entry] & reading) != 0;
+    }
+
+    public String getPlace(int entry) {
+        return places[entry];
+    }
+
+    public District getDistrict(int entry) {
+        return districts[entry];
+    }
+
+    public int size() {
+        return places.length;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.project.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+// DistrictBoundaries on small hand-built HKDB files. The shapes copy the case the boundaries are for:
+// Tsing Yi is an island inside Tsuen Wan's bounding box, closer to Tsuen Wan's centroid than to Kwai Tsing's
+public class DistrictBoundariesTest {
+
+    // Tsuen Wan with a bay cut out of its south side, lat/lon pairs
+    private static final float[] TSUEN_WAN = {
+            22.34f, 114.08f, 22.40f, 114.08f, 22.40f, 114.14f, 22.34f, 114.14f,
+            22.34f, 114.12f, 22.37f, 114.12f, 22.37f, 114.09f, 22.34f, 114.09f
+    };
+    // An island in the bay
+    private static final float[] TSING_YI = square(22.345f, 114.095f, 22.365f, 114.115f);
+    // Two islands of one district
+    private static final float[] LANTAU = square(22.20f, 113.90f, 22.25f, 113.95f);
+    private static final float[] LAMMA = square(22.26f, 113.85f, 22.30f, 113.88f);
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("hkdb").toFile();
+        dir.deleteOnExit();
+    }
+
+    @Test
+    public void islandInsideAnotherDistrictsBoxBelongsToItsOwnDistrict() throws IOException {
+        DistrictBoundaries boundaries = load(standard());
+        assertSame(District.KWAI_TSING, boundaries.find(22.355, 114.105));
+        // The same point by the nearest centroid
+        assertEquals(District.TSUEN_WAN.getDisplayName(), DistrictMapper.findNearestDistrict(22.355, 114.105).districtName);
+    }
+
+    @Test
+    public void concavePolygon() throws IOException {
+        DistrictBoundaries boundaries = load(standard());
+        assertSame(District.TSUEN_WAN, boundaries.find(22.385, 114.11));
+        assertSame(District.TSUEN_WAN, boundaries.find(22.35, 114.085));
+        // In the bay, outside both Tsuen Wan and the island
+        assertNull(boundaries.find(22.342, 114.10));
+    }
+
+    @Test
+    public void districtWithSeveralPolygons() throws IOException {
+        DistrictBoundaries boundaries = load(standard());
+        assertSame(District.ISLANDS, boundaries.find(22.22, 113.92));
+        assertSame(District.ISLANDS, boundaries.find(22.28, 113.86));
+    }
+
+    @Test
+    public void offshoreIsInNoPolygon() throws IOException {
+        DistrictBoundaries boundaries = load(standard());
+        assertNull(boundaries.find(22.10, 114.00));
+        // North of every polygon, the search stops on minLat
+        assertNull(boundaries.find(22.60, 114.10));
+        assertNull(boundaries.find(22.255, 113.92));
+    }
+
+    @Test
+    public void polygonCount() throws IOException {
+        assertEquals(4, load(standard()).getPolygonCount());
+    }
+
+    @Test
+    public void missingOrDamagedFileIsIgnored() throws IOException {
+        assertNull(DistrictBoundaries.load(new FileAssetSource(dir)));
+
+        byte[] file = standard();
+        assertNull(loadBytes(Arrays.copyOf(file, file.length - 4)));
+
+        byte[] wrongMagic = file.clone();
+        wrongMagic[0] = 'X';
+        assertNull(loadBytes(wrongMagic));
+
+        byte[] badOrdinal = file.clone();
+        ByteBuffer.wrap(badOrdinal).putInt(12, District.COUNT);
+        assertNull(loadBytes(badOrdinal));
+    }
+
+    // ==================== HKDB files ====================
+
+    private static byte[] standard() {
+        return hkdb(
+                District.ISLANDS, LANTAU,
+                District.ISLANDS, LAMMA,
+                District.TSUEN_WAN, TSUEN_WAN,
+                District.KWAI_TSING, TSING_YI);
+    }
+
+    private DistrictBoundaries load(byte[] file) throws IOException {
+        DistrictBoundaries boundaries = loadBytes(file);
+        assertNotNull(boundaries);
+        return boundaries;
+    }
+
+    private DistrictBoundaries loadBytes(byte[] file) throws IOException {
+        File asset = new File(dir, DistrictBoundaries.ASSET_NAME);
+        Files.write(asset.toPath(), file);
+        asset.deleteOnExit();
+        return DistrictBoundaries.load(new FileAssetSource(dir));
+    }
+
+    // The layout documented on DistrictBoundaries. Pairs of District and lat/lon array, already sorted by minLat
+    private static byte[] hkdb(Object... polygons) {
+        int size = 12;
+        for (int i = 1; i < polygons.length; i += 2) {
+            size += 24 + ((float[]) polygons[i]).length * 4;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(0x484B4442).putInt(1).putInt(polygons.length / 2);
+        for (int i = 0; i < polygons.length; i += 2) {
+            float[] vertices = (float[]) polygons[i + 1];
+            float minLat = Float.MAX_VALUE;
+            float minLon = Float.MAX_VALUE;
+            float maxLat = -Float.MAX_VALUE;
+            float maxLon = -Float.MAX_VALUE;
+            for (int v = 0; v < vertices.length; v += 2) {
+                minLat = Math.min(minLat, vertices[v]);
+                maxLat = Math.max(maxLat, vertices[v]);
+                minLon = Math.min(minLon, vertices[v + 1]);
+                maxLon = Math.max(maxLon, vertices[v + 1]);
+            }
+            buffer.putInt(((District) polygons[i]).ordinal())
+                    .putFloat(minLat).putFloat(minLon).putFloat(maxLat).putFloat(maxLon)
+                    .putInt(vertices.length / 2);
+            for (float value : vertices) {
+                buffer.putFloat(value);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static float[] square(float minLat, float minLon, float maxLat, float maxLon) {
+        return new float[]{minLat, minLon, maxLat, minLon, maxLat, maxLon, minLat, maxLon};
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.project.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertSame;
+
+// findNearestDistrict against the plain nearest-centroid lookup it replaced: Haversine to all 18
+// districts in table order, no pre-filter. Seeded, so a mismatch reproduces
+public class DistrictMapperTest {
+
+    private static final long SEED = 3457;
+
+    // Hong Kong's land area, where almost every real fix falls
+    private static final double HK_MIN_LATITUDE = 22.15;
+    private static final double HK_MAX_LATITUDE = 22.57;
+    private static final double HK_MIN_LONGITUDE = 113.83;
+    private static final double HK_MAX_LONGITUDE = 114.44;
+
+    // The box the pre-filter is trusted in (DistrictMapper.MIN_LATITUDE ...), and a margin around its edges
+    private static final double BOX_MIN_LATITUDE = 21.8;
+    private static final double BOX_MAX_LATITUDE = 22.9;
+    private static final double BOX_MIN_LONGITUDE = 113.5;
+    private static final double BOX_MAX_LONGITUDE = 114.7;
+    private static final double EDGE_MARGIN = 0.05;
+
+    @Test
+    public void matchesReferenceInsideHongKong() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < 500000; i++) {
+            assertMatches(uniform(random, HK_MIN_LATITUDE, HK_MAX_LATITUDE),
+                    uniform(random, HK_MIN_LONGITUDE, HK_MAX_LONGITUDE));
+        }
+    }
+
+    @Test
+    public void matchesReferenceInsideTheBox() {
+        Random random = new Random(SEED + 1);
+        for (int i = 0; i < 200000; i++) {
+            assertMatches(uniform(random, BOX_MIN_LATITUDE, BOX_MAX_LATITUDE),
+                    uniform(random, BOX_MIN_LONGITUDE, BOX_MAX_LONGITUDE));
+        }
+    }
+
+    // Either side of the box edge, where the lookup switches between the pre-filter and comparing all
+    @Test
+    public void matchesReferenceAroundTheBoxEdge() {
+        Random random = new Random(SEED + 2);
+        for (int i = 0; i < 100000; i++) {
+            double latitude = uniform(random, BOX_MIN_LATITUDE - EDGE_MARGIN, BOX_MAX_LATITUDE + EDGE_MARGIN);
+            double longitude = uniform(random, BOX_MIN_LONGITUDE - EDGE_MARGIN, BOX_MAX_LONGITUDE + EDGE_MARGIN);
+            switch (random.nextInt(4)) {
+                case 0: latitude = BOX_MIN_LATITUDE + uniform(random, -EDGE_MARGIN, EDGE_MARGIN); break;
+                case 1: latitude = BOX_MAX_LATITUDE + uniform(random, -EDGE_MARGIN, EDGE_MARGIN); break;
+                case 2: longitude = BOX_MIN_LONGITUDE + uniform(random, -EDGE_MARGIN, EDGE_MARGIN); break;
+                default: longitude = BOX_MAX_LONGITUDE + uniform(random, -EDGE_MARGIN, EDGE_MARGIN); break;
+            }
+            assertMatches(latitude, longitude);
+        }
+    }
+
+    @Test
+    public void matchesReferenceWorldwide() {
+        Random random = new Random(SEED + 3);
+        for (int i = 0; i < 100000; i++) {
+            assertMatches(uniform(random, -90, 90), uniform(random, -180, 180));
+        }
+    }
+
+    // Centroids themselves and the midpoint of every pair, where two districts are (nearly) tied
+    @Test
+    public void matchesReferenceOnCentroidsAndMidpoints() {
+        for (int i = 0; i < District.COUNT; i++) {
+            DistrictMapper.DistrictLocation district = DistrictMapper.getLocation(District.get(i));
+            assertSame(district, DistrictMapper.findNearestDistrict(district.latitude, district.longitude));
+
+            for (int j = i + 1; j < District.COUNT; j++) {
+                DistrictMapper.DistrictLocation other = DistrictMapper.getLocation(District.get(j));
+                assertMatches((district.latitude + other.latitude) / 2, (district.longitude + other.longitude) / 2);
+            }
+        }
+    }
+
+    private static void assertMatches(double latitude, double longitude) {
+        DistrictMapper.DistrictLocation expected = findNearestReference(latitude, longitude);
+        DistrictMapper.DistrictLocation actual = DistrictMapper.findNearestDistrict(latitude, longitude);
+        assertSame("Nearest district to " + latitude + ", " + longitude, expected, actual);
+    }
+
+    private static double uniform(Random random, double min, double max) {
+        return min + random.nextDouble() * (max - min);
+    }
+
+    // ==================== Reference ====================
+
+    // The original findNearestDistrict, without its logging
+    private static DistrictMapper.DistrictLocation findNearestReference(double latitude, double longitude) {
+        double minDistance = Double.MAX_VALUE;
+        DistrictMapper.DistrictLocation nearestDistrict = null;
+
+        for (int i = 0; i < District.COUNT; i++) {
+            DistrictMapper.DistrictLocation district = DistrictMapper.getLocation(District.get(i));
+            double distance = calculateDistance(latitude, longitude, district.latitude, district.longitude);
+            if (distance < minDistance) {
+                minDistance = distance;
+                nearestDistrict = district;
+            }
+        }
+        return nearestDistrict;
+    }
+
+    private static double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
+        final double EARTH_RADIUS = 6371.0; // Earth radius (km)
+
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS * c;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.project.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// RefreshPolicy on a fake clock: the cadence per dataType and condition, the batch window and the failure backoff
+public class RefreshPolicyTest {
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long SECOND = 1000L;
+
+    private static final String RHRREAD = HKOApiHelper.DATA_TYPE_RHRREAD;
+    private static final String FLW = HKOApiHelper.DATA_TYPE_FLW;
+    private static final String FND = HKOApiHelper.DATA_TYPE_FND;
+
+    private static class FakeClock implements RefreshPolicy.Clock {
+        long now = 1_000_000_000L;
+
+        @Override
+        public long now() {
+            return now;
+        }
+
+        void advance(long ms) {
+            now += ms;
+        }
+    }
+
+    private FakeClock clock;
+    private RefreshPolicy policy;
+
+    @Before
+    public void setUp() {
+        clock = new FakeClock();
+        policy = new RefreshPolicy(clock);
+    }
+
+    @Test
+    public void normalCadence() {
+        assertEquals(15 * MINUTE, policy.getInterval(RHRREAD));
+        assertEquals(30 * MINUTE, policy.getInterval(FLW));
+        assertEquals(180 * MINUTE, policy.getInterval(FND));
+    }
+
+    @Test
+    public void warningPollsRhrreadAndFlwFaster() {
+        policy.setConditions(true, false, false);
+        assertEquals(5 * MINUTE, policy.getInterval(RHRREAD));
+        assertEquals(10 * MINUTE, policy.getInterval(FLW));
+        assertEquals(180 * MINUTE, policy.getInterval(FND));
+    }
+
+    @Test
+    public void meteredDoubles() {
+        policy.setConditions(false, true, false);
+        assertEquals(30 * MINUTE, policy.getInterval(RHRREAD));
+        assertEquals(60 * MINUTE, policy.getInterval(FLW));
+        assertEquals(360 * MINUTE, policy.getInterval(FND));
+    }
+
+    @Test
+    public void lowBatteryTriples() {
+        policy.setConditions(false, false, true);
+        assertEquals(45 * MINUTE, policy.getInterval(RHRREAD));
+        assertEquals(90 * MINUTE, policy.getInterval(FLW));
+    }
+
+    @Test
+    public void meteredAndLowBatteryMultiply() {
+        policy.setConditions(false, true, true);
+        assertEquals(90 * MINUTE, policy.getInterval(RHRREAD));
+    }
+
+    // A warning keeps its cadence on a metered network, only a low battery slows it down
+    @Test
+    public void warningIgnoresMeteredButNotLowBattery() {
+        policy.setConditions(true, true, false);
+        assertEquals(5 * MINUTE, policy.getInterval(RHRREAD));
+
+        policy.setConditions(true, true, true);
+        assertEquals(15 * MINUTE, policy.getInterval(RHRREAD));
+        assertEquals(30 * MINUTE, policy.getInterval(FLW));
+    }
+
+    @Test
+    public void nothingTrackedNothingDue() {
+        assertEquals(-1, policy.getDelayUntilNextDue());
+        assertTrue(policy.takeDue().isEmpty());
+    }
+
+    @Test
+    public void dueAfterItsInterval() {
+        policy.track(RHRREAD);
+        assertEquals(15 * MINUTE, policy.getDelayUntilNextDue());
+
+        clock.advance(15 * MINUTE - SECOND);
+        assertTrue(policy.takeDue().isEmpty());
+
+        clock.advance(SECOND);
+        assertEquals(0, policy.getDelayUntilNextDue());
+        assertEquals(Collections.singletonList(RHRREAD), policy.takeDue());
+
+        // Taken counts as checked, the next one is a full interval away
+        assertEquals(15 * MINUTE, policy.getDelayUntilNextDue());
+        assertTrue(policy.takeDue().isEmpty());
+    }
+
+    @Test
+    public void warningShortensTheWaitForAlreadyTrackedData() {
+        policy.track(RHRREAD);
+        clock.advance(5 * MINUTE);
+        assertTrue(policy.takeDue().isEmpty());
+
+        policy.setConditions(true, false, false);
+        assertEquals(Collections.singletonList(RHRREAD), policy.takeDue());
+    }
+
+    @Test
+    public void trackKeepsAnEarlierCheck() {
+        policy.track(RHRREAD);
+        clock.advance(10 * MINUTE);
+        policy.track(RHRREAD);
+        assertEquals(5 * MINUTE, policy.getDelayUntilNextDue());
+    }
+
+    // flw is due 2 minutes after rhrread, inside the 3 minute window, so one wakeup does both
+    @Test
+    public void batchWindowTakesAlongWhatIsDueSoon() {
+        policy.track(FLW);
+        clock.advance(13 * MINUTE);
+        policy.track(RHRREAD);
+        clock.advance(14 * MINUTE);
+        // rhrread due in 1 min, flw in 3, neither is due yet
+        assertTrue(policy.takeDue().isEmpty());
+
+        clock.advance(MINUTE);
+        // rhrread due now, flw in 2 min
+        assertSameElements(Arrays.asList(RHRREAD, FLW), policy.takeDue());
+        assertEquals(15 * MINUTE, policy.getDelayUntilNextDue());
+    }
+
+    @Test
+    public void batchWindowEdge() {
+        policy.track(RHRREAD);
+        clock.advance(12 * MINUTE);
+        policy.track(FLW);
+        clock.advance(3 * MINUTE);
+        // rhrread due now, flw in 27 min: not batched
+        assertEquals(Collections.singletonList(RHRREAD), policy.takeDue());
+
+        policy = new RefreshPolicy(clock);
+        policy.track(FLW);
+        clock.advance(12 * MINUTE);
+        policy.track(RHRREAD);
+        clock.advance(15 * MINUTE);
+        // rhrread due now, flw due in exactly 3 min: batched
+        assertSameElements(Arrays.asList(RHRREAD, FLW), policy.takeDue());
+    }
+
+    // Something inside the window alone does not wake anything up
+    @Test
+    public void windowAloneIsNotDue() {
+        policy.track(RHRREAD);
+        clock.advance(13 * MINUTE);
+        assertTrue(policy.takeDue().isEmpty());
+        assertEquals(2 * MINUTE, policy.getDelayUntilNextDue());
+    }
+
+    @Test
+    public void failureBacksOffFromThirtySeconds() {
+        policy.track(RHRREAD);
+        long[] expected = {30 * SECOND, 60 * SECOND, 120 * SECOND, 240 * SECOND, 480 * SECOND, 15 * MINUTE, 15 * MINUTE};
+        for (long retry : expected) {
+            policy.markFailed(RHRREAD);
+            assertEquals(retry, policy.getDelayUntilNextDue());
+            clock.advance(retry);
+            assertEquals(Collections.singletonList(RHRREAD), policy.takeDue());
+        }
+    }
+
+    @Test
+    public void successResetsTheBackoff() {
+        policy.track(FLW);
+        policy.markFailed(FLW);
+        policy.markFailed(FLW);
+        assertEquals(60 * SECOND, policy.getDelayUntilNextDue());
+
+        policy.markSucceeded(FLW);
+        policy.markChecked(FLW);
+        policy.markFailed(FLW);
+        assertEquals(30 * SECOND, policy.getDelayUntilNextDue());
+    }
+
+    @Test
+    public void backoffIsCappedAtTheWarningInterval() {
+        policy.setConditions(true, false, false);
+        policy.track(RHRREAD);
+        for (int i = 0; i < 5; i++) {
+            policy.markFailed(RHRREAD);
+        }
+        assertEquals(5 * MINUTE, policy.getDelayUntilNextDue());
+    }
+
+    private static void assertSameElements(List<String> expected, List<String> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertTrue(actual + " should contain " + expected, actual.containsAll(expected));
+    }
+}